@@ -0,0 +1,70 @@
+package com.antonr.datastructures;
+
+// Decides how array based collections change their capacity.
+// Growth: capacity is multiplied by growthFactor, but grows at most by maxGrowthStep,
+// so huge collections don't double their memory at once.
+// Shrink: when used part of the capacity drops below shrinkThreshold, capacity is reduced
+// to used * growthFactor. Threshold is less than 1 / growthFactor, so the collection
+// is neither full nor under the threshold right after any resize (hysteresis),
+// and alternating add/remove near the border doesn't resize every time.
+public class CapacityPolicy {
+
+  // arrays of some JVMs can't be longer because of headers
+  private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+  private final double growthFactor;
+  private final int maxGrowthStep;
+  private final double shrinkThreshold;
+
+  public CapacityPolicy(double growthFactor, int maxGrowthStep, double shrinkThreshold) {
+    if (!(growthFactor > 1)) {
+      throw new IllegalArgumentException("Growth factor should be greater than 1");
+    }
+    if (maxGrowthStep < 1) {
+      throw new IllegalArgumentException("Max growth step should be at least 1");
+    }
+    if (!(shrinkThreshold >= 0 && shrinkThreshold < 1 / growthFactor)) {
+      throw new IllegalArgumentException(
+          "Shrink threshold should be in [0;1/growthFactor), but was " + shrinkThreshold);
+    }
+    this.growthFactor = growthFactor;
+    this.maxGrowthStep = maxGrowthStep;
+    this.shrinkThreshold = shrinkThreshold;
+  }
+
+  // policy which never gives memory back
+  public static CapacityPolicy growOnly(double growthFactor) {
+    return new CapacityPolicy(growthFactor, Integer.MAX_VALUE, 0);
+  }
+
+  // capacity for at least required elements, grows by at least 1
+  public int grow(int capacity, int required) {
+    if (required > MAX_CAPACITY) {
+      throw new OutOfMemoryError("Required capacity " + required + " is too big");
+    }
+    long step = Math.min(maxGrowthStep, Math.max(1, (long) (capacity * (growthFactor - 1))));
+    long grown = Math.min(MAX_CAPACITY, capacity + step);
+    return (int) Math.max(grown, required);
+  }
+
+  // smaller capacity if only used of capacity is needed, otherwise the same capacity,
+  // the result is never less than minCapacity
+  public int shrink(int capacity, int used, int minCapacity) {
+    if (capacity <= minCapacity || used >= capacity * shrinkThreshold) {
+      return capacity;
+    }
+    long shrunk = (long) Math.ceil(used * growthFactor);
+    return (int) Math.max(minCapacity, Math.min(capacity, shrunk));
+  }
+
+  public double getGrowthFactor() {
+    return growthFactor;
+  }
+
+  public int getMaxGrowthStep() {
+    return maxGrowthStep;
+  }
+
+  public double getShrinkThreshold() {
+    return shrinkThreshold;
+  }
+}
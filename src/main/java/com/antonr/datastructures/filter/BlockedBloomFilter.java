@@ -0,0 +1,194 @@
+package com.antonr.datastructures.filter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+// Probabilistic set: mightContain returns false only if value was never added,
+// true may be a false positive. All bits of one value are set inside a single
+// block of 512 bits (one cache line), so a check costs one memory access.
+public class BlockedBloomFilter<T> {
+
+  // version 2: positions inside a block are taken from a generator, not double hashing
+  private static final int FORMAT_VERSION = 2;
+  private static final int LONGS_PER_BLOCK = 8;
+  private static final int BITS_PER_BLOCK = LONGS_PER_BLOCK * Long.SIZE;
+  private static final int MAX_HASH_FUNCTIONS = 16;
+  // keeps zero hash code away from the fixed point of mix
+  private static final long SEED = 0x9E3779B97F4A7C15L;
+  // multiplier and increment of the generator of positions, full period modulo 2^64
+  private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+  private static final long INCREMENT = 0x632BE59BD9B4E019L;
+  // high bits of the generator state are a position in the block
+  private static final int POSITION_SHIFT =
+      Long.SIZE - Integer.numberOfTrailingZeros(BITS_PER_BLOCK);
+  private final long[] bits;
+  private final int blockCount;
+  private final int hashFunctionCount;
+
+  public BlockedBloomFilter(int expectedInsertions, double falsePositiveRate) {
+    if (expectedInsertions < 1) {
+      throw new IllegalArgumentException("Expected insertions should be at least 1");
+    }
+    if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+      throw new IllegalArgumentException("False positive rate should be in (0;1)");
+    }
+    // optimal size for the classic bloom filter is the lower bound, blocks get
+    // different counts of values, and overloaded ones give more false positives,
+    // so blocks are added until the rate of the blocked filter is low enough
+    double bitCount =
+        -expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+    long blocks = (long) Math.max(1, Math.ceil(bitCount / BITS_PER_BLOCK));
+    int hashFunctions = bestHashFunctionCount((double) expectedInsertions / blocks);
+    while (falsePositiveRate((double) expectedInsertions / blocks, hashFunctions)
+        > falsePositiveRate) {
+      blocks += Math.max(1, blocks / 64);
+      hashFunctions = bestHashFunctionCount((double) expectedInsertions / blocks);
+    }
+    if (blocks > Integer.MAX_VALUE / LONGS_PER_BLOCK) {
+      throw new IllegalArgumentException(
+          "Filter for " + expectedInsertions + " values with this rate is too big");
+    }
+    this.hashFunctionCount = hashFunctions;
+    this.blockCount = (int) blocks;
+    this.bits = new long[blockCount * LONGS_PER_BLOCK];
+  }
+
+  private BlockedBloomFilter(long[] bits, int hashFunctionCount) {
+    this.bits = bits;
+    this.blockCount = bits.length / LONGS_PER_BLOCK;
+    this.hashFunctionCount = hashFunctionCount;
+  }
+
+  public void add(T value) {
+    long hash = hash(value);
+    int offset = blockOffset(hash);
+    // double hashing (first + i * step) gives too few distinct patterns in 512 bits,
+    // and patterns shifted by the step share all bits but one, which raises
+    // false positives a lot for small rates
+    long positions = mix(hash);
+    for (int i = 0; i < hashFunctionCount; i++) {
+      positions = positions * MULTIPLIER + INCREMENT;
+      int bit = (int) (positions >>> POSITION_SHIFT);
+      bits[offset + (bit >>> 6)] |= 1L << bit;
+    }
+  }
+
+  public boolean mightContain(T value) {
+    long hash = hash(value);
+    int offset = blockOffset(hash);
+    long positions = mix(hash);
+    for (int i = 0; i < hashFunctionCount; i++) {
+      positions = positions * MULTIPLIER + INCREMENT;
+      int bit = (int) (positions >>> POSITION_SHIFT);
+      if ((bits[offset + (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public void clear() {
+    Arrays.fill(bits, 0);
+  }
+
+  // size of the filter in bits
+  public long bitSize() {
+    return (long) bits.length * Long.SIZE;
+  }
+
+  public int hashFunctionCount() {
+    return hashFunctionCount;
+  }
+
+  // stream is not closed, so filter can be a part of a bigger file
+  public void writeTo(OutputStream outputStream) throws IOException {
+    DataOutputStream out = new DataOutputStream(outputStream);
+    out.writeInt(FORMAT_VERSION);
+    out.writeInt(hashFunctionCount);
+    out.writeInt(blockCount);
+    for (long word : bits) {
+      out.writeLong(word);
+    }
+    out.flush();
+  }
+
+  public static <T> BlockedBloomFilter<T> readFrom(InputStream inputStream) throws IOException {
+    DataInputStream in = new DataInputStream(inputStream);
+    int version = in.readInt();
+    if (version != FORMAT_VERSION) {
+      throw new IOException("Unsupported bloom filter format version: " + version);
+    }
+    int hashFunctionCount = in.readInt();
+    int blockCount = in.readInt();
+    if (hashFunctionCount < 1 || hashFunctionCount > MAX_HASH_FUNCTIONS || blockCount < 1
+        || blockCount > Integer.MAX_VALUE / LONGS_PER_BLOCK) {
+      throw new IOException("Corrupted bloom filter header");
+    }
+    // header can't promise more data than the stream has, if the stream knows its length
+    int available = in.available();
+    if (available > 0 && available < (long) blockCount * LONGS_PER_BLOCK * Long.BYTES) {
+      throw new IOException("Bloom filter data is truncated, expected " + blockCount
+          + " blocks, but there are only " + available + " bytes");
+    }
+    long[] bits = new long[blockCount * LONGS_PER_BLOCK];
+    for (int i = 0; i < bits.length; i++) {
+      bits[i] = in.readLong();
+    }
+    return new BlockedBloomFilter<>(bits, hashFunctionCount);
+  }
+
+  // count of hash functions with the lowest false positive rate for the average load
+  private static int bestHashFunctionCount(double averageLoad) {
+    int best = 1;
+    for (int k = 2; k <= MAX_HASH_FUNCTIONS; k++) {
+      if (falsePositiveRate(averageLoad, k) < falsePositiveRate(averageLoad, best)) {
+        best = k;
+      }
+    }
+    return best;
+  }
+
+  // False positive rate of the blocked filter. Count of values in a block is
+  // Poisson distributed with mean averageLoad, a block with l values answers
+  // false positive with probability (1 - (1 - 1/BITS_PER_BLOCK)^(k*l))^k.
+  private static double falsePositiveRate(double averageLoad, int hashFunctions) {
+    double bitStaysZero = Math.log1p(-1.0 / BITS_PER_BLOCK) * hashFunctions;
+    // far tail of the distribution doesn't change the sum
+    int maxLoad = (int) (averageLoad + 10 * Math.sqrt(averageLoad) + 20);
+    double rate = 0;
+    double logProbability = -averageLoad;
+    for (int load = 0; load <= maxLoad; load++) {
+      if (load > 0) {
+        logProbability += Math.log(averageLoad / load);
+      }
+      double blockRate = Math.pow(-Math.expm1(bitStaysZero * load), hashFunctions);
+      rate += Math.exp(logProbability) * blockRate;
+    }
+    return rate;
+  }
+
+  // maps the upper half of the hash to [0, blockCount) without division
+  private int blockOffset(long hash) {
+    int block = (int) (((hash >>> 32) * blockCount) >>> 32);
+    return block * LONGS_PER_BLOCK;
+  }
+
+  private static long hash(Object value) {
+    return mix(Objects.hashCode(value) + SEED);
+  }
+
+  // finalizer of MurmurHash3, spreads bits of weak hash codes
+  private static long mix(long hash) {
+    hash ^= hash >>> 33;
+    hash *= 0xff51afd7ed558ccdL;
+    hash ^= hash >>> 33;
+    hash *= 0xc4ceb9fe1a85ec53L;
+    hash ^= hash >>> 33;
+    return hash;
+  }
+}
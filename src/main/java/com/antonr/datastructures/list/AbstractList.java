@@ -1,8 +1,15 @@
 package com.antonr.datastructures.list;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 public abstract class AbstractList<T> implements List<T> {
 
   protected int size;
+  // count of structural modifications (size changes), views use it to fail fast
+  protected int modCount;
 
   @Override
   public void add(T value) {
@@ -19,4 +26,50 @@ public abstract class AbstractList<T> implements List<T> {
     return size == 0;
   }
 
+  // operations on the range [fromIndex; toIndex) for sub lists,
+  // they work through get/set/remove and should be overridden if there is a faster way
+
+  // iterator without remove
+  protected Iterator<T> iterator(int fromIndex, int toIndex) {
+    return new Iterator<T>() {
+      int index = fromIndex;
+
+      @Override
+      public boolean hasNext() {
+        return index < toIndex;
+      }
+
+      @Override
+      public T next() {
+        if (index >= toIndex) {
+          throw new NoSuchElementException("There is no such element");
+        }
+        return get(index++);
+      }
+    };
+  }
+
+  protected void removeRange(int fromIndex, int toIndex) {
+    for (int i = fromIndex; i < toIndex; i++) {
+      remove(fromIndex);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected void sort(int fromIndex, int toIndex, Comparator<? super T> comparator) {
+    T[] values = (T[]) new Object[toIndex - fromIndex];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = get(fromIndex + i);
+    }
+    Arrays.sort(values, comparator);
+    for (int i = 0; i < values.length; i++) {
+      set(values[i], fromIndex + i);
+    }
+  }
+
+  // index is relative to fromIndex
+  protected int binarySearch(int fromIndex, int toIndex, T value,
+      Comparator<? super T> comparator) {
+    return ListUtils.binarySearch(this, fromIndex, toIndex, value, comparator);
+  }
 }
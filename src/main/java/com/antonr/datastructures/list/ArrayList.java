@@ -1,38 +1,80 @@
 package com.antonr.datastructures.list;
 
+import com.antonr.datastructures.CapacityPolicy;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
 
 public class ArrayList<T> extends AbstractList<T> implements List<T>, Iterable<T> {
 
-  private static final double GROWTH_FACTOR = 1.5;
+  private static final CapacityPolicy DEFAULT_POLICY = CapacityPolicy.growOnly(1.5);
   private static final int DEFAULT_CAPACITY = 10;
+  // smaller arrays are sorted faster by one thread (see ParallelSortBenchmark): up to
+  // 2^13 parallelSort is the same TimSort, up to 2^15 it does twice the work, so it
+  // wins with 4+ workers, and with 2-3 workers only from 2^16
+  private static final int PARALLEL_SORT_THRESHOLD = 1 << 14;
+  private static final int FEW_WORKERS_PARALLEL_SORT_THRESHOLD = 1 << 16;
+  private final CapacityPolicy policy;
+  // list never shrinks below it by the policy
+  private final int initialCapacity;
   private T[] elements;
+  // hash codes of elements by the same indexes, null if the list is not hash indexed.
+  // Search compares ints (by vectors on Java 17+, see HashScan) and calls equals
+  // only on hash matches, so elements
+  // must not change their hashCode while they are in the list (as keys of a map)
+  private int[] hashes;
 
   public ArrayList() {
     this(DEFAULT_CAPACITY);
   }
 
-  @SuppressWarnings("unchecked")
   public ArrayList(int initialCapacity) {
+    this(initialCapacity, DEFAULT_POLICY);
+  }
+
+  public ArrayList(int initialCapacity, CapacityPolicy policy) {
+    this(initialCapacity, policy, false);
+  }
+
+  public ArrayList(int initialCapacity, boolean hashIndexed) {
+    this(initialCapacity, DEFAULT_POLICY, hashIndexed);
+  }
+
+  // hash indexed list keeps hash codes of elements to make contains, indexOf
+  // and lastIndexOf faster for big lists, for the cost of 4 bytes per element
+  // and a hashCode call on every add and set
+  @SuppressWarnings("unchecked")
+  public ArrayList(int initialCapacity, CapacityPolicy policy, boolean hashIndexed) {
     if (initialCapacity > 0) {
       elements = (T[]) new Object[initialCapacity];
     } else {
       throw new IllegalArgumentException("Initial capacity should be at least 1");
     }
+    if (hashIndexed) {
+      hashes = new int[initialCapacity];
+    }
+    this.policy = policy;
+    this.initialCapacity = initialCapacity;
   }
 
   @Override
   public void add(T value, int index) {
     ListUtils.checkIndex(index, size + 1);
     if (size == elements.length) {
-      resize();
+      resize(policy.grow(elements.length, size + 1));
     }
     System.arraycopy(elements, index, elements, index + 1, size - index);
     elements[index] = value;
+    if (hashes != null) {
+      System.arraycopy(hashes, index, hashes, index + 1, size - index);
+      hashes[index] = Objects.hashCode(value);
+    }
     size++;
+    modCount++;
   }
 
   @Override
@@ -41,9 +83,14 @@ public class ArrayList<T> extends AbstractList<T> implements List<T>, Iterable<T
     T removedElement = elements[index];
     if (index < size - 1) {
       System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+      if (hashes != null) {
+        System.arraycopy(hashes, index + 1, hashes, index, size - index - 1);
+      }
     }
     size--;
     elements[size] = null;
+    modCount++;
+    shrinkIfNeeded();
     return removedElement;
   }
 
@@ -58,22 +105,48 @@ public class ArrayList<T> extends AbstractList<T> implements List<T>, Iterable<T
     ListUtils.checkIndex(index, size);
     T previousValue = elements[index];
     elements[index] = value;
+    if (hashes != null) {
+      hashes[index] = Objects.hashCode(value);
+    }
     return previousValue;
   }
 
+  // the array is reused, unless the policy lets it shrink
   @Override
-  @SuppressWarnings("unchecked")
   public void clear() {
-    elements = (T[]) new Object[DEFAULT_CAPACITY];
+    Arrays.fill(elements, 0, size, null);
     size = 0;
+    modCount++;
+    shrinkIfNeeded();
   }
 
   public int capacity() {
     return elements.length;
   }
 
+  // pre-sizes the list, so adding up to minCapacity elements doesn't resize it
+  public void ensureCapacity(int minCapacity) {
+    if (minCapacity > elements.length) {
+      resize(policy.grow(elements.length, minCapacity));
+    }
+  }
+
+  // gives back all unused capacity
+  public void trimToSize() {
+    if (elements.length > Math.max(size, 1)) {
+      resize(Math.max(size, 1));
+    }
+  }
+
+  public boolean isHashIndexed() {
+    return hashes != null;
+  }
+
   @Override
   public boolean contains(T value) {
+    if (hashes != null) {
+      return indexOf(value) != -1;
+    }
     // Not indexOf(value) != -1; because this version is more effective.
     for (int i = 0; i < size / 2; i++) {
       if (Objects.equals(elements[i], value) || Objects.equals(elements[size - i - 1], value)) {
@@ -85,6 +158,16 @@ public class ArrayList<T> extends AbstractList<T> implements List<T>, Iterable<T
 
   @Override
   public int indexOf(T value) {
+    if (hashes != null) {
+      int hash = Objects.hashCode(value);
+      for (int i = HashScan.indexOf(hashes, 0, size, hash); i >= 0;
+          i = HashScan.indexOf(hashes, i + 1, size, hash)) {
+        if (Objects.equals(elements[i], value)) {
+          return i;
+        }
+      }
+      return -1;
+    }
     for (int i = 0; i < size; i++) {
       if (Objects.equals(elements[i], value)) {
         return i;
@@ -95,6 +178,16 @@ public class ArrayList<T> extends AbstractList<T> implements List<T>, Iterable<T
 
   @Override
   public int lastIndexOf(T value) {
+    if (hashes != null) {
+      int hash = Objects.hashCode(value);
+      for (int i = HashScan.lastIndexOf(hashes, 0, size, hash); i >= 0;
+          i = HashScan.lastIndexOf(hashes, 0, i, hash)) {
+        if (Objects.equals(elements[i], value)) {
+          return i;
+        }
+      }
+      return -1;
+    }
     for (int i = size - 1; i >= 0; i--) {
       if (Objects.equals(elements[i], value)) {
         return i;
@@ -103,6 +196,84 @@ public class ArrayList<T> extends AbstractList<T> implements List<T>, Iterable<T
     return -1;
   }
 
+  @Override
+  public void sort(Comparator<? super T> comparator) {
+    sort(0, size, comparator);
+  }
+
+  @Override
+  public int binarySearch(T value, Comparator<? super T> comparator) {
+    return binarySearch(0, size, value, comparator);
+  }
+
+  // view of the range, elements are not copied
+  @Override
+  public List<T> subList(int fromIndex, int toIndex) {
+    ListUtils.checkRange(fromIndex, toIndex, size);
+    return new SubList<>(this, fromIndex, toIndex);
+  }
+
+  @Override
+  protected Iterator<T> iterator(int fromIndex, int toIndex) {
+    return new Iterator<T>() {
+      int index = fromIndex;
+
+      @Override
+      public boolean hasNext() {
+        return index < toIndex;
+      }
+
+      @Override
+      public T next() {
+        if (index >= toIndex) {
+          throw new NoSuchElementException("There is no such element");
+        }
+        return elements[index++];
+      }
+    };
+  }
+
+  // one shift of the tail instead of removing elements one by one
+  @Override
+  protected void removeRange(int fromIndex, int toIndex) {
+    System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+    if (hashes != null) {
+      System.arraycopy(hashes, toIndex, hashes, fromIndex, size - toIndex);
+    }
+    int newSize = size - (toIndex - fromIndex);
+    Arrays.fill(elements, newSize, size, null);
+    size = newSize;
+    modCount++;
+    shrinkIfNeeded();
+  }
+
+  // TimSort of the elements array in place, big ranges are sorted by
+  // fork-join merge sort of Arrays.parallelSort in the common pool
+  @Override
+  protected void sort(int fromIndex, int toIndex, Comparator<? super T> comparator) {
+    int threshold = ForkJoinPool.getCommonPoolParallelism() < 4
+        ? FEW_WORKERS_PARALLEL_SORT_THRESHOLD : PARALLEL_SORT_THRESHOLD;
+    if (toIndex - fromIndex < threshold) {
+      Arrays.sort(elements, fromIndex, toIndex, comparator);
+    } else {
+      Arrays.parallelSort(elements, fromIndex, toIndex, comparator);
+    }
+    // sort moves elements without their hashes
+    if (hashes != null) {
+      for (int i = fromIndex; i < toIndex; i++) {
+        hashes[i] = Objects.hashCode(elements[i]);
+      }
+    }
+  }
+
+  @Override
+  protected int binarySearch(int fromIndex, int toIndex, T value,
+      Comparator<? super T> comparator) {
+    int index = Arrays.binarySearch(elements, fromIndex, toIndex, value, comparator);
+    // Arrays returns absolute index or -(insertion point) - 1
+    return index >= 0 ? index - fromIndex : index + fromIndex;
+  }
+
   @Override
   public String toString() {
     StringJoiner sj = new StringJoiner(", ", "[", "]");
@@ -142,10 +313,20 @@ public class ArrayList<T> extends AbstractList<T> implements List<T>, Iterable<T
     };
   }
 
+  private void shrinkIfNeeded() {
+    int newCapacity = policy.shrink(elements.length, size, initialCapacity);
+    if (newCapacity < elements.length) {
+      resize(newCapacity);
+    }
+  }
+
   @SuppressWarnings("unchecked")
-  private void resize() {
-    T[] temp = (T[]) new Object[(int) (elements.length * GROWTH_FACTOR)];
+  private void resize(int newCapacity) {
+    T[] temp = (T[]) new Object[newCapacity];
     System.arraycopy(elements, 0, temp, 0, size);
     elements = temp;
+    if (hashes != null) {
+      hashes = Arrays.copyOf(hashes, newCapacity);
+    }
   }
 }
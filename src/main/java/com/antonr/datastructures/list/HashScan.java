@@ -0,0 +1,34 @@
+package com.antonr.datastructures.list;
+
+// Search of a hash code in an array of hash codes for hash indexed lists.
+// This is the scalar version for Java 8, a multi-release jar replaces it on Java 17+
+// with the version from src/main/java17, which uses the Vector API.
+final class HashScan {
+
+  private HashScan() {
+  }
+
+  // index of the first hash in [fromIndex; toIndex), -1 if there is no such hash
+  static int indexOf(int[] hashes, int fromIndex, int toIndex, int hash) {
+    for (int i = fromIndex; i < toIndex; i++) {
+      if (hashes[i] == hash) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  // index of the last hash in [fromIndex; toIndex), -1 if there is no such hash
+  static int lastIndexOf(int[] hashes, int fromIndex, int toIndex, int hash) {
+    for (int i = toIndex - 1; i >= fromIndex; i--) {
+      if (hashes[i] == hash) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  static boolean isVectorized() {
+    return false;
+  }
+}
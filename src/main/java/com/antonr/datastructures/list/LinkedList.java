@@ -1,5 +1,7 @@
 package com.antonr.datastructures.list;
 
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
@@ -27,11 +29,12 @@ public class LinkedList<T> extends AbstractList<T> implements List<T>, Iterable<
     } else {
       Node<T> previousElement = getNodeByIndex(index - 1);
       newNode.previous = previousElement;
-      previousElement.next = newNode;
       newNode.next = previousElement.next;
       previousElement.next.previous = newNode;
+      previousElement.next = newNode;
     }
     size++;
+    modCount++;
   }
 
   @Override
@@ -44,9 +47,11 @@ public class LinkedList<T> extends AbstractList<T> implements List<T>, Iterable<
     } else if (index == 0) {
       removedElement = head;
       head = head.next;
+      head.previous = null;
     } else if (index == size - 1) {
       removedElement = tail;
       tail = tail.previous;
+      tail.next = null;
     } else {
       Node<T> previousElement = getNodeByIndex(index - 1);
       removedElement = previousElement.next;
@@ -54,6 +59,7 @@ public class LinkedList<T> extends AbstractList<T> implements List<T>, Iterable<
       previousElement.next.previous = previousElement;
     }
     size--;
+    modCount++;
     return removedElement.element;
   }
 
@@ -76,6 +82,7 @@ public class LinkedList<T> extends AbstractList<T> implements List<T>, Iterable<
   public void clear() {
     head = tail = null;
     size = 0;
+    modCount++;
   }
 
   @Override
@@ -119,6 +126,125 @@ public class LinkedList<T> extends AbstractList<T> implements List<T>, Iterable<
     return -1;
   }
 
+  @Override
+  public void sort(Comparator<? super T> comparator) {
+    sort(0, size, comparator);
+  }
+
+  @Override
+  public int binarySearch(T value, Comparator<? super T> comparator) {
+    return binarySearch(0, size, value, comparator);
+  }
+
+  // view of the range, elements are not copied
+  @Override
+  public List<T> subList(int fromIndex, int toIndex) {
+    ListUtils.checkRange(fromIndex, toIndex, size);
+    return new SubList<>(this, fromIndex, toIndex);
+  }
+
+  // walks the nodes, get(index) would search every node from the end
+  @Override
+  protected Iterator<T> iterator(int fromIndex, int toIndex) {
+    return new Iterator<T>() {
+      Node<T> current = fromIndex < toIndex ? getNodeByIndex(fromIndex) : null;
+      int index = fromIndex;
+
+      @Override
+      public boolean hasNext() {
+        return index < toIndex;
+      }
+
+      @Override
+      public T next() {
+        if (index >= toIndex) {
+          throw new NoSuchElementException("There is no such element");
+        }
+        T element = current.element;
+        current = current.next;
+        index++;
+        return element;
+      }
+    };
+  }
+
+  // the whole range is unlinked at once
+  @Override
+  protected void removeRange(int fromIndex, int toIndex) {
+    if (fromIndex == toIndex) {
+      return;
+    }
+    Node<T> before = fromIndex == 0 ? null : getNodeByIndex(fromIndex - 1);
+    Node<T> after = toIndex == size ? null : getNodeByIndex(toIndex);
+    if (before == null) {
+      head = after;
+    } else {
+      before.next = after;
+    }
+    if (after == null) {
+      tail = before;
+    } else {
+      after.previous = before;
+    }
+    size -= toIndex - fromIndex;
+    modCount++;
+  }
+
+  // values are sorted in an array and written back to the same nodes
+  @Override
+  @SuppressWarnings("unchecked")
+  protected void sort(int fromIndex, int toIndex, Comparator<? super T> comparator) {
+    if (fromIndex == toIndex) {
+      return;
+    }
+    T[] values = (T[]) new Object[toIndex - fromIndex];
+    Node<T> first = getNodeByIndex(fromIndex);
+    Node<T> current = first;
+    for (int i = 0; i < values.length; i++) {
+      values[i] = current.element;
+      current = current.next;
+    }
+    Arrays.sort(values, comparator);
+    current = first;
+    for (int i = 0; i < values.length; i++) {
+      current.element = values[i];
+      current = current.next;
+    }
+  }
+
+  // O(log n) comparisons, but O(n) steps between nodes
+  @Override
+  protected int binarySearch(int fromIndex, int toIndex, T value,
+      Comparator<? super T> comparator) {
+    int low = 0;
+    int high = toIndex - fromIndex - 1;
+    if (high < 0) {
+      return -1;
+    }
+    Node<T> current = getNodeByIndex(fromIndex);
+    int currentIndex = 0;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      while (currentIndex < middle) {
+        current = current.next;
+        currentIndex++;
+      }
+      while (currentIndex > middle) {
+        current = current.previous;
+        currentIndex--;
+      }
+      int comparison = ListUtils.compare(current.element, value, comparator);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -(low + 1);
+  }
+
   @Override
   public String toString() {
     StringJoiner sj = new StringJoiner(", ", "[", "]");
@@ -1,5 +1,6 @@
 package com.antonr.datastructures.list;
 
+import java.util.Comparator;
 import java.util.Iterator;
 
 // Abstract Data Type
@@ -45,6 +46,21 @@ public interface List<T> {
   // [A, B, A, C] lastIndexOf(A) -> 2
   int lastIndexOf(T value);
 
+  // sorts the list in place, equal elements keep their order
+  // null comparator means natural ordering
+  void sort(Comparator<? super T> comparator);
+
+  // list must be sorted by the comparator, null comparator means natural ordering
+  // [A, C, E] binarySearch(C) -> 1
+  // [A, C, E] binarySearch(D) -> -3 = -(insertion point) - 1
+  int binarySearch(T value, Comparator<? super T> comparator);
+
+  // view of [fromIndex; toIndex) without copying, its changes are changes of this list
+  // [A, B, C, D] subList(1, 3) -> [B, C]
+  // view can't be used after the list size is changed not through it
+  // otherwise throw new ConcurrentModificationException
+  List<T> subList(int fromIndex, int toIndex);
+
   // [A, B, C]
   String toString();
 
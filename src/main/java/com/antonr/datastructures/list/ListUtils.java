@@ -1,5 +1,7 @@
 package com.antonr.datastructures.list;
 
+import java.util.Comparator;
+
 public enum ListUtils {
   ;
 
@@ -13,4 +15,39 @@ public enum ListUtils {
           "You cannot do such manipulations with empty list");
     }
   }
+
+  // [fromIndex; toIndex) must be a range of the list
+  static void checkRange(int fromIndex, int toIndex, int size) {
+    if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+      throw new IndexOutOfBoundsException(
+          "Wrong range [" + fromIndex + ";" + toIndex + "), it must be inside [0;" + size + "]!");
+    }
+  }
+
+  // binary search through get in [fromIndex; toIndex), for lists with fast access by index,
+  // result is relative to fromIndex
+  static <T> int binarySearch(List<T> list, int fromIndex, int toIndex, T value,
+      Comparator<? super T> comparator) {
+    int low = 0;
+    int high = toIndex - fromIndex - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = compare(list.get(fromIndex + middle), value, comparator);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -(low + 1);
+  }
+
+  @SuppressWarnings("unchecked")
+  static <T> int compare(T first, T second, Comparator<? super T> comparator) {
+    return comparator == null
+        ? ((Comparable<? super T>) first).compareTo(second)
+        : comparator.compare(first, second);
+  }
 }
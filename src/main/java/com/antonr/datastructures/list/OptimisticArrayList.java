@@ -0,0 +1,327 @@
+package com.antonr.datastructures.list;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+// Thread safe ArrayList for read-mostly data. Readers don't lock at all: they read
+// under an optimistic stamp and validate it afterwards, only if a writer came in
+// between (or the reader failed on half-changed state) the read is repeated under
+// the read lock. Writers take the write lock, StampedLock doesn't let a stream
+// of readers starve them.
+// Iterator goes through a snapshot taken under the read lock.
+public class OptimisticArrayList<T> implements List<T>, Iterable<T> {
+
+  private final List<T> delegate;
+  private final StampedLock lock;
+
+  public OptimisticArrayList() {
+    this(new ArrayList<>(), new StampedLock());
+  }
+
+  public OptimisticArrayList(int initialCapacity) {
+    this(new ArrayList<>(initialCapacity), new StampedLock());
+  }
+
+  // see ArrayList(int, boolean)
+  public OptimisticArrayList(int initialCapacity, boolean hashIndexed) {
+    this(new ArrayList<>(initialCapacity, hashIndexed), new StampedLock());
+  }
+
+  private OptimisticArrayList(List<T> delegate, StampedLock lock) {
+    this.delegate = delegate;
+    this.lock = lock;
+  }
+
+  @Override
+  public void add(T value) {
+    long stamp = lock.writeLock();
+    try {
+      delegate.add(value);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void add(T value, int index) {
+    long stamp = lock.writeLock();
+    try {
+      delegate.add(value, index);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public T remove(int index) {
+    long stamp = lock.writeLock();
+    try {
+      return delegate.remove(index);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  // the read sequence is written out in every frequent read method,
+  // a lambda for it would be allocated on every call
+  @Override
+  public T get(int index) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        T value = delegate.get(index);
+        if (lock.validate(stamp)) {
+          return value;
+        }
+      } catch (RuntimeException e) {
+        // exception of a valid read is a real one, e.g. index out of bounds,
+        // otherwise the reader saw the list in the middle of a write
+        if (lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return delegate.get(index);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public T set(T value, int index) {
+    long stamp = lock.writeLock();
+    try {
+      return delegate.set(value, index);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public void clear() {
+    long stamp = lock.writeLock();
+    try {
+      delegate.clear();
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public int size() {
+    long stamp = lock.tryOptimisticRead();
+    int size = delegate.size();
+    if (lock.validate(stamp)) {
+      return size;
+    }
+    stamp = lock.readLock();
+    try {
+      return delegate.size();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public boolean contains(T value) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        boolean contains = delegate.contains(value);
+        if (lock.validate(stamp)) {
+          return contains;
+        }
+      } catch (RuntimeException e) {
+        if (lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return delegate.contains(value);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public int indexOf(T value) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        int index = delegate.indexOf(value);
+        if (lock.validate(stamp)) {
+          return index;
+        }
+      } catch (RuntimeException e) {
+        if (lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return delegate.indexOf(value);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public int lastIndexOf(T value) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        int index = delegate.lastIndexOf(value);
+        if (lock.validate(stamp)) {
+          return index;
+        }
+      } catch (RuntimeException e) {
+        if (lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return delegate.lastIndexOf(value);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public void sort(Comparator<? super T> comparator) {
+    long stamp = lock.writeLock();
+    try {
+      delegate.sort(comparator);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public int binarySearch(T value, Comparator<? super T> comparator) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        int index = delegate.binarySearch(value, comparator);
+        if (lock.validate(stamp)) {
+          return index;
+        }
+      } catch (RuntimeException e) {
+        if (lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return delegate.binarySearch(value, comparator);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  // view shares the lock with this list, so it is thread safe too,
+  // but still fails fast after size changes not through it
+  @Override
+  public List<T> subList(int fromIndex, int toIndex) {
+    return read(() -> new OptimisticArrayList<>(delegate.subList(fromIndex, toIndex), lock));
+  }
+
+  @Override
+  public String toString() {
+    return read(delegate::toString);
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    Object[] snapshot = read(() -> {
+      Object[] elements = new Object[delegate.size()];
+      for (int i = 0; i < elements.length; i++) {
+        elements[i] = delegate.get(i);
+      }
+      return elements;
+    });
+    return new Iterator<T>() {
+      int counter = -1;
+      // removed elements shift indexes of the following ones in the list
+      int removed;
+      boolean canRemove;
+
+      @Override
+      public boolean hasNext() {
+        return counter < snapshot.length - 1;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public T next() {
+        if (counter >= snapshot.length - 1) {
+          throw new NoSuchElementException("There is no such element");
+        }
+        canRemove = true;
+        return (T) snapshot[++counter];
+      }
+
+      // removes the element if the list wasn't changed around it after the snapshot
+      @Override
+      public void remove() {
+        if (!canRemove) {
+          throw new IllegalStateException(
+              "There is no elements for removing, counter before fist element!");
+        }
+        long stamp = lock.writeLock();
+        try {
+          int index = counter - removed;
+          if (index >= delegate.size() || delegate.get(index) != snapshot[counter]) {
+            throw new ConcurrentModificationException("List was changed after the snapshot");
+          }
+          delegate.remove(index);
+        } finally {
+          lock.unlockWrite(stamp);
+        }
+        removed++;
+        canRemove = false;
+      }
+    };
+  }
+
+  // for rare reads, which allocate anyway
+  private <R> R read(Supplier<R> reader) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        R result = reader.get();
+        if (lock.validate(stamp)) {
+          return result;
+        }
+      } catch (RuntimeException e) {
+        // exception of a valid read is a real one, e.g. index out of bounds,
+        // otherwise the reader saw the list in the middle of a write
+        if (lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    long readStamp = lock.readLock();
+    try {
+      return reader.get();
+    } finally {
+      lock.unlockRead(readStamp);
+    }
+  }
+}
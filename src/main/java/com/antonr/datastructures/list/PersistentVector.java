@@ -0,0 +1,490 @@
+package com.antonr.datastructures.list;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+// Immutable list based on a relaxed radix balanced (RRB) tree.
+// Every "modifying" operation returns a new vector which shares
+// all untouched nodes with the original one.
+public class PersistentVector<T> implements List<T>, Iterable<T> {
+
+  private static final int BITS = 5;
+  private static final int BRANCHING_FACTOR = 1 << BITS;
+  private static final int MASK = BRANCHING_FACTOR - 1;
+  // how many extra nodes (comparing to the optimal count) are allowed
+  // on a concatenation seam before the nodes are redistributed
+  private static final int EXTRA_NODES = 2;
+
+  private final Node root;
+  // shift of the root node, leaves have shift 0
+  private final int shift;
+  private final int size;
+
+  public PersistentVector() {
+    this(null, 0);
+  }
+
+  private PersistentVector(Node root, int shift) {
+    this.root = root;
+    this.shift = shift;
+    this.size = root == null ? 0 : root.size;
+  }
+
+  // returns new vector with value added to the end
+  public PersistentVector<T> append(T value) {
+    if (root == null) {
+      return new PersistentVector<>(new Node(new Object[]{value}), 0);
+    }
+    Node newRoot = appendInto(root, shift, value);
+    if (newRoot != null) {
+      return new PersistentVector<>(newRoot, shift);
+    }
+    // the whole tree is full, so it grows one level up
+    newRoot = Node.branch(new Object[]{root, newPath(shift, value)}, shift + BITS);
+    return new PersistentVector<>(newRoot, shift + BITS);
+  }
+
+  // returns new vector where value by index between [0, size - 1] is replaced
+  public PersistentVector<T> update(T value, int index) {
+    ListUtils.checkIndex(index, size);
+    return new PersistentVector<>(updateIn(root, shift, index, value), shift);
+  }
+
+  // [A, B] concat [C, D] => [A, B, C, D]
+  public PersistentVector<T> concat(PersistentVector<T> other) {
+    if (other.size == 0) {
+      return this;
+    }
+    if (size == 0) {
+      return other;
+    }
+    Node[] merged = concatSubTree(root, shift, other.root, other.shift);
+    int mergedShift = Math.max(shift, other.shift);
+    if (merged.length == 1) {
+      return new PersistentVector<>(merged[0], mergedShift);
+    }
+    return new PersistentVector<>(Node.branch(merged, mergedShift + BITS),
+        mergedShift + BITS);
+  }
+
+  // [A, B, C, D] slice(1, 3) => [B, C]
+  // fromIndex is inclusive, toIndex is exclusive
+  public PersistentVector<T> slice(int fromIndex, int toIndex) {
+    if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+      throw new IndexOutOfBoundsException(
+          "Wrong range [" + fromIndex + ";" + toIndex + "), size is " + size);
+    }
+    if (fromIndex == toIndex) {
+      return new PersistentVector<>();
+    }
+    Node newRoot = root;
+    if (toIndex < size) {
+      newRoot = takeLeft(newRoot, shift, toIndex);
+    }
+    if (fromIndex > 0) {
+      newRoot = dropLeft(newRoot, shift, fromIndex);
+    }
+    int newShift = shift;
+    while (newShift > 0 && newRoot.array.length == 1) {
+      newRoot = (Node) newRoot.array[0];
+      newShift -= BITS;
+    }
+    return new PersistentVector<>(newRoot, newShift);
+  }
+
+  @Override
+  public void add(T value) {
+    throw new UnsupportedOperationException("Vector is immutable, use append instead");
+  }
+
+  @Override
+  public void add(T value, int index) {
+    throw new UnsupportedOperationException("Vector is immutable");
+  }
+
+  @Override
+  public T remove(int index) {
+    throw new UnsupportedOperationException("Vector is immutable");
+  }
+
+  @Override
+  public T set(T value, int index) {
+    throw new UnsupportedOperationException("Vector is immutable, use update instead");
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedOperationException("Vector is immutable");
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    ListUtils.checkIndex(index, size);
+    Node node = root;
+    for (int level = shift; level > 0; level -= BITS) {
+      int childIndex = node.childIndex(index, level);
+      if (childIndex > 0) {
+        index -= node.offset(childIndex, level);
+      }
+      node = (Node) node.array[childIndex];
+    }
+    return (T) node.array[index];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean contains(T value) {
+    return indexOf(value) != -1;
+  }
+
+  @Override
+  public int indexOf(T value) {
+    int index = 0;
+    for (T element : this) {
+      if (Objects.equals(element, value)) {
+        return index;
+      }
+      index++;
+    }
+    return -1;
+  }
+
+  @Override
+  public int lastIndexOf(T value) {
+    for (int i = size - 1; i >= 0; i--) {
+      if (Objects.equals(get(i), value)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public void sort(Comparator<? super T> comparator) {
+    throw new UnsupportedOperationException("Vector is immutable");
+  }
+
+  @Override
+  public int binarySearch(T value, Comparator<? super T> comparator) {
+    return ListUtils.binarySearch(this, 0, size(), value, comparator);
+  }
+
+  // vector is immutable, so the slice is as good as a view
+  @Override
+  public List<T> subList(int fromIndex, int toIndex) {
+    return slice(fromIndex, toIndex);
+  }
+
+  @Override
+  public String toString() {
+    StringJoiner sj = new StringJoiner(", ", "[", "]");
+    for (T element : this) {
+      sj.add(String.valueOf(element));
+    }
+    return sj.toString();
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<T>() {
+      int index;
+      // current leaf and index of its first element in the vector
+      Object[] leaf;
+      int leafStart;
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public T next() {
+        if (index >= size) {
+          throw new NoSuchElementException("There is no such element");
+        }
+        if (leaf == null || index - leafStart >= leaf.length) {
+          findLeaf();
+        }
+        return (T) leaf[index++ - leafStart];
+      }
+
+      private void findLeaf() {
+        Node node = root;
+        int localIndex = index;
+        for (int level = shift; level > 0; level -= BITS) {
+          int childIndex = node.childIndex(localIndex, level);
+          if (childIndex > 0) {
+            localIndex -= node.offset(childIndex, level);
+          }
+          node = (Node) node.array[childIndex];
+        }
+        leaf = node.array;
+        leafStart = index - localIndex;
+      }
+    };
+  }
+
+  // returns null if there is no free slot in the subtree
+  private static Node appendInto(Node node, int level, Object value) {
+    if (level == 0) {
+      if (node.array.length == BRANCHING_FACTOR) {
+        return null;
+      }
+      Object[] newArray = Arrays.copyOf(node.array, node.array.length + 1);
+      newArray[node.array.length] = value;
+      return new Node(newArray);
+    }
+    int last = node.array.length - 1;
+    Node newChild = appendInto((Node) node.array[last], level - BITS, value);
+    Object[] newArray;
+    if (newChild != null) {
+      newArray = node.array.clone();
+      newArray[last] = newChild;
+    } else if (node.array.length < BRANCHING_FACTOR) {
+      newArray = Arrays.copyOf(node.array, node.array.length + 1);
+      newArray[last + 1] = newPath(level - BITS, value);
+    } else {
+      return null;
+    }
+    return Node.branch(newArray, level);
+  }
+
+  private static Node newPath(int level, Object value) {
+    Node node = new Node(new Object[]{value});
+    for (int currentLevel = BITS; currentLevel <= level; currentLevel += BITS) {
+      node = Node.branch(new Object[]{node}, currentLevel);
+    }
+    return node;
+  }
+
+  private static Node updateIn(Node node, int level, int index, Object value) {
+    Object[] newArray = node.array.clone();
+    if (level == 0) {
+      newArray[index] = value;
+      return new Node(newArray);
+    }
+    int childIndex = node.childIndex(index, level);
+    if (childIndex > 0) {
+      index -= node.offset(childIndex, level);
+    }
+    newArray[childIndex] = updateIn((Node) node.array[childIndex], level - BITS, index, value);
+    return new Node(newArray, node.size, node.sizes);
+  }
+
+  // keeps first count elements of the subtree, count is in [1, node.size]
+  private static Node takeLeft(Node node, int level, int count) {
+    if (level == 0) {
+      return count == node.array.length ? node : new Node(Arrays.copyOf(node.array, count));
+    }
+    int childIndex = node.childIndex(count - 1, level);
+    int childCount = count - (childIndex > 0 ? node.offset(childIndex, level) : 0);
+    Object[] newArray = Arrays.copyOf(node.array, childIndex + 1);
+    newArray[childIndex] = takeLeft((Node) node.array[childIndex], level - BITS, childCount);
+    return Node.branch(newArray, level);
+  }
+
+  // drops first count elements of the subtree, count is in [0, node.size - 1]
+  private static Node dropLeft(Node node, int level, int count) {
+    if (level == 0) {
+      return count == 0 ? node
+          : new Node(Arrays.copyOfRange(node.array, count, node.array.length));
+    }
+    int childIndex = node.childIndex(count, level);
+    int childCount = count - (childIndex > 0 ? node.offset(childIndex, level) : 0);
+    Object[] newArray = Arrays.copyOfRange(node.array, childIndex, node.array.length);
+    newArray[0] = dropLeft((Node) node.array[childIndex], level - BITS, childCount);
+    return Node.branch(newArray, level);
+  }
+
+  // merges two subtrees and returns one or two nodes with shift max(leftLevel, rightLevel)
+  private static Node[] concatSubTree(Node left, int leftLevel, Node right, int rightLevel) {
+    if (leftLevel > rightLevel) {
+      Node[] middle = concatSubTree(left.lastChild(), leftLevel - BITS, right, rightLevel);
+      return rebalance(left, middle, null, leftLevel);
+    }
+    if (leftLevel < rightLevel) {
+      Node[] middle = concatSubTree(left, leftLevel, right.firstChild(), rightLevel - BITS);
+      return rebalance(null, middle, right, rightLevel);
+    }
+    if (leftLevel == 0) {
+      int total = left.array.length + right.array.length;
+      if (total <= BRANCHING_FACTOR) {
+        Object[] merged = Arrays.copyOf(left.array, total);
+        System.arraycopy(right.array, 0, merged, left.array.length, right.array.length);
+        return new Node[]{new Node(merged)};
+      }
+      return new Node[]{left, right};
+    }
+    Node[] middle = concatSubTree(left.lastChild(), leftLevel - BITS,
+        right.firstChild(), rightLevel - BITS);
+    return rebalance(left, middle, right, leftLevel);
+  }
+
+  // joins children of left (without the last one), middle and children of right
+  // (without the first one), redistributes them if there are too many
+  // underfilled nodes and packs the result into one or two nodes of the given level
+  private static Node[] rebalance(Node left, Node[] middle, Node right, int level) {
+    int leftCount = left == null ? 0 : left.array.length - 1;
+    int rightCount = right == null ? 0 : right.array.length - 1;
+    Node[] children = new Node[leftCount + middle.length + rightCount];
+    if (left != null) {
+      System.arraycopy(left.array, 0, children, 0, leftCount);
+    }
+    System.arraycopy(middle, 0, children, leftCount, middle.length);
+    if (right != null) {
+      System.arraycopy(right.array, 1, children, leftCount + middle.length, rightCount);
+    }
+
+    int[] plan = createConcatPlan(children);
+    if (plan != null) {
+      children = executeConcatPlan(children, plan, level - BITS);
+    }
+
+    if (children.length <= BRANCHING_FACTOR) {
+      return new Node[]{Node.branch(children, level)};
+    }
+    Node[] leftChildren = Arrays.copyOf(children, BRANCHING_FACTOR);
+    Node[] rightChildren = Arrays.copyOfRange(children, BRANCHING_FACTOR, children.length);
+    return new Node[]{Node.branch(leftChildren, level), Node.branch(rightChildren, level)};
+  }
+
+  // returns new slot counts for children or null if nothing should be redistributed
+  private static int[] createConcatPlan(Node[] children) {
+    int[] plan = new int[children.length];
+    int totalSlots = 0;
+    for (int i = 0; i < children.length; i++) {
+      plan[i] = children[i].array.length;
+      totalSlots += plan[i];
+    }
+    int optimalLength = (totalSlots + BRANCHING_FACTOR - 1) / BRANCHING_FACTOR;
+    int length = children.length;
+    if (length <= optimalLength + EXTRA_NODES) {
+      return null;
+    }
+    int i = 0;
+    while (length > optimalLength + EXTRA_NODES) {
+      // skip nodes which are full enough
+      while (plan[i] > BRANCHING_FACTOR - EXTRA_NODES / 2) {
+        i++;
+      }
+      // spread slots of the underfilled node over the following ones
+      int remaining = plan[i];
+      while (remaining > 0) {
+        int newSize = Math.min(remaining + plan[i + 1], BRANCHING_FACTOR);
+        plan[i] = newSize;
+        remaining = remaining + plan[i + 1] - newSize;
+        i++;
+      }
+      System.arraycopy(plan, i + 1, plan, i, length - i - 1);
+      length--;
+      i--;
+    }
+    return Arrays.copyOf(plan, length);
+  }
+
+  private static Node[] executeConcatPlan(Node[] children, int[] plan, int level) {
+    Node[] result = new Node[plan.length];
+    int childIndex = 0;
+    // position inside of the current child
+    int offset = 0;
+    for (int i = 0; i < plan.length; i++) {
+      Node child = children[childIndex];
+      if (offset == 0 && child.array.length == plan[i]) {
+        // node is not affected by redistribution, so it can be shared
+        result[i] = child;
+        childIndex++;
+        continue;
+      }
+      Object[] newArray = new Object[plan[i]];
+      int filled = 0;
+      while (filled < plan[i]) {
+        Object[] source = children[childIndex].array;
+        int copied = Math.min(plan[i] - filled, source.length - offset);
+        System.arraycopy(source, offset, newArray, filled, copied);
+        filled += copied;
+        offset += copied;
+        if (offset == source.length) {
+          childIndex++;
+          offset = 0;
+        }
+      }
+      result[i] = level == 0 ? new Node(newArray) : Node.branch(newArray, level);
+    }
+    return result;
+  }
+
+  // Leaves keep elements in array, branches keep child nodes.
+  // sizes contains cumulative sizes of children and is null
+  // when all children except the last one are full (radix search is possible)
+  private static class Node {
+
+    final Object[] array;
+    final int size;
+    final int[] sizes;
+
+    Node(Object[] array) {
+      this(array, array.length, null);
+    }
+
+    Node(Object[] array, int size, int[] sizes) {
+      this.array = array;
+      this.size = size;
+      this.sizes = sizes;
+    }
+
+    static Node branch(Object[] children, int level) {
+      int[] sizes = new int[children.length];
+      int fullChildSize = 1 << level;
+      boolean balanced = true;
+      int total = 0;
+      for (int i = 0; i < children.length; i++) {
+        int childSize = ((Node) children[i]).size;
+        if (i < children.length - 1 && childSize != fullChildSize) {
+          balanced = false;
+        }
+        total += childSize;
+        sizes[i] = total;
+      }
+      return new Node(children, total, balanced ? null : sizes);
+    }
+
+    int childIndex(int index, int level) {
+      if (sizes == null) {
+        return index >>> level;
+      }
+      int childIndex = index >>> level;
+      while (sizes[childIndex] <= index) {
+        childIndex++;
+      }
+      return childIndex;
+    }
+
+    // count of elements in children before the child with given index
+    int offset(int childIndex, int level) {
+      return sizes == null ? childIndex << level : sizes[childIndex - 1];
+    }
+
+    Node firstChild() {
+      return (Node) array[0];
+    }
+
+    Node lastChild() {
+      return (Node) array[array.length - 1];
+    }
+  }
+}
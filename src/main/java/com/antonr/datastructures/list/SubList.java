@@ -0,0 +1,193 @@
+package com.antonr.datastructures.list;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+// Live view of [offset; offset + size) of the root list, elements are not copied.
+// All changes go to the root list. modCount of the view is the modCount of the root
+// it expects, any structural change of the root not through this view (or its
+// sub lists) makes the view unusable, its methods throw ConcurrentModificationException.
+class SubList<T> extends AbstractList<T> implements Iterable<T> {
+
+  private final AbstractList<T> root;
+  // view this one was created from, its size is changed together with this one
+  private final SubList<T> parent;
+  private final int offset;
+
+  SubList(AbstractList<T> root, int fromIndex, int toIndex) {
+    this(root, null, fromIndex, toIndex);
+  }
+
+  private SubList(AbstractList<T> root, SubList<T> parent, int fromIndex, int toIndex) {
+    this.root = root;
+    this.parent = parent;
+    this.offset = fromIndex;
+    this.size = toIndex - fromIndex;
+    this.modCount = root.modCount;
+  }
+
+  @Override
+  public void add(T value, int index) {
+    checkForComodification();
+    ListUtils.checkIndex(index, size + 1);
+    root.add(value, offset + index);
+    updateSize(1);
+  }
+
+  @Override
+  public T remove(int index) {
+    checkForComodification();
+    ListUtils.checkIndex(index, size);
+    T removedElement = root.remove(offset + index);
+    updateSize(-1);
+    return removedElement;
+  }
+
+  @Override
+  public T get(int index) {
+    checkForComodification();
+    ListUtils.checkIndex(index, size);
+    return root.get(offset + index);
+  }
+
+  @Override
+  public T set(T value, int index) {
+    checkForComodification();
+    ListUtils.checkIndex(index, size);
+    return root.set(value, offset + index);
+  }
+
+  // removes the range from the root list
+  @Override
+  public void clear() {
+    checkForComodification();
+    root.removeRange(offset, offset + size);
+    updateSize(-size);
+  }
+
+  @Override
+  public int size() {
+    checkForComodification();
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public boolean contains(T value) {
+    return indexOf(value) != -1;
+  }
+
+  @Override
+  public int indexOf(T value) {
+    checkForComodification();
+    Iterator<T> elements = root.iterator(offset, offset + size);
+    for (int i = 0; elements.hasNext(); i++) {
+      if (Objects.equals(elements.next(), value)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  @Override
+  public int lastIndexOf(T value) {
+    checkForComodification();
+    int lastIndex = -1;
+    Iterator<T> elements = root.iterator(offset, offset + size);
+    for (int i = 0; elements.hasNext(); i++) {
+      if (Objects.equals(elements.next(), value)) {
+        lastIndex = i;
+      }
+    }
+    return lastIndex;
+  }
+
+  @Override
+  public void sort(Comparator<? super T> comparator) {
+    checkForComodification();
+    root.sort(offset, offset + size, comparator);
+  }
+
+  @Override
+  public int binarySearch(T value, Comparator<? super T> comparator) {
+    checkForComodification();
+    return root.binarySearch(offset, offset + size, value, comparator);
+  }
+
+  @Override
+  public List<T> subList(int fromIndex, int toIndex) {
+    checkForComodification();
+    ListUtils.checkRange(fromIndex, toIndex, size);
+    return new SubList<>(root, this, offset + fromIndex, offset + toIndex);
+  }
+
+  @Override
+  public String toString() {
+    StringJoiner sj = new StringJoiner(", ", "[", "]");
+    for (T element : this) {
+      sj.add(String.valueOf(element));
+    }
+    return sj.toString();
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    checkForComodification();
+    return new Iterator<T>() {
+      Iterator<T> elements = root.iterator(offset, offset + size);
+      int counter = -1;
+      boolean canRemove;
+
+      @Override
+      public boolean hasNext() {
+        return counter < size - 1;
+      }
+
+      @Override
+      public T next() {
+        checkForComodification();
+        if (counter >= size - 1) {
+          throw new NoSuchElementException("There is no such element");
+        }
+        counter++;
+        canRemove = true;
+        return elements.next();
+      }
+
+      @Override
+      public void remove() {
+        if (!canRemove) {
+          throw new IllegalStateException(
+              "There is no elements for removing, counter before fist element!");
+        }
+        SubList.this.remove(counter);
+        counter--;
+        canRemove = false;
+        // iterator of the root is not valid after removal
+        elements = root.iterator(offset + counter + 1, offset + size);
+      }
+    };
+  }
+
+  private void updateSize(int delta) {
+    for (SubList<T> view = this; view != null; view = view.parent) {
+      view.size += delta;
+      view.modCount = root.modCount;
+    }
+  }
+
+  private void checkForComodification() {
+    if (root.modCount != modCount) {
+      throw new ConcurrentModificationException(
+          "List was structurally changed not through this view");
+    }
+  }
+}
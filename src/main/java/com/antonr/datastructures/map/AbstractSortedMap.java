@@ -0,0 +1,219 @@
+package com.antonr.datastructures.map;
+
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+public abstract class AbstractSortedMap<K, V> implements SortedMap<K, V> {
+
+  protected final Comparator<? super K> comparator;
+
+  protected AbstractSortedMap(Comparator<? super K> comparator) {
+    this.comparator = comparator;
+  }
+
+  // iterates in ascending order over entries with keys >= fromKey
+  protected abstract java.util.Iterator<Map.Entry<K, V>> iterator(K fromKey);
+
+  @Override
+  public Comparator<? super K> comparator() {
+    return comparator;
+  }
+
+  @Override
+  public SortedMap<K, V> subMap(K fromKey, K toKey) {
+    if (compare(fromKey, toKey) > 0) {
+      throw new IllegalArgumentException("fromKey should not be greater than toKey");
+    }
+    return new SubMap(fromKey, toKey);
+  }
+
+  @SuppressWarnings("unchecked")
+  protected int compare(K first, K second) {
+    if (comparator == null) {
+      return ((Comparable<? super K>) first).compareTo(second);
+    }
+    return comparator.compare(first, second);
+  }
+
+  private class SubMap extends AbstractSortedMap<K, V> {
+
+    private final K fromKey;
+    private final K toKey;
+
+    SubMap(K fromKey, K toKey) {
+      super(AbstractSortedMap.this.comparator);
+      this.fromKey = fromKey;
+      this.toKey = toKey;
+    }
+
+    @Override
+    public V put(K key, V value) {
+      checkRange(key);
+      return AbstractSortedMap.this.put(key, value);
+    }
+
+    @Override
+    public V get(K key) {
+      return inRange(key) ? AbstractSortedMap.this.get(key) : null;
+    }
+
+    @Override
+    public V remove(K key) {
+      return inRange(key) ? AbstractSortedMap.this.remove(key) : null;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+      return inRange(key) && AbstractSortedMap.this.containsKey(key);
+    }
+
+    // view doesn't track its size, so entries are counted
+    @Override
+    public int size() {
+      int size = 0;
+      java.util.Iterator<Map.Entry<K, V>> iterator = iterator();
+      while (iterator.hasNext()) {
+        iterator.next();
+        size++;
+      }
+      return size;
+    }
+
+    @Override
+    public K firstKey() {
+      K key = ceilingKey(fromKey);
+      if (key == null) {
+        throw new NoSuchElementException("Map is empty");
+      }
+      return key;
+    }
+
+    @Override
+    public K lastKey() {
+      K key = lowerKey(toKey);
+      if (key == null) {
+        throw new NoSuchElementException("Map is empty");
+      }
+      return key;
+    }
+
+    @Override
+    public K floorKey(K key) {
+      if (compare(key, fromKey) < 0) {
+        return null;
+      }
+      return inRangeOrNull(compare(key, toKey) >= 0
+          ? AbstractSortedMap.this.lowerKey(toKey)
+          : AbstractSortedMap.this.floorKey(key));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+      if (compare(key, toKey) >= 0) {
+        return null;
+      }
+      return inRangeOrNull(compare(key, fromKey) < 0
+          ? AbstractSortedMap.this.ceilingKey(fromKey)
+          : AbstractSortedMap.this.ceilingKey(key));
+    }
+
+    @Override
+    public K lowerKey(K key) {
+      if (compare(key, fromKey) <= 0) {
+        return null;
+      }
+      return inRangeOrNull(compare(key, toKey) > 0
+          ? AbstractSortedMap.this.lowerKey(toKey)
+          : AbstractSortedMap.this.lowerKey(key));
+    }
+
+    @Override
+    public K higherKey(K key) {
+      if (compare(key, toKey) >= 0) {
+        return null;
+      }
+      return inRangeOrNull(compare(key, fromKey) < 0
+          ? AbstractSortedMap.this.ceilingKey(fromKey)
+          : AbstractSortedMap.this.higherKey(key));
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+      return new AbstractSet<Map.Entry<K, V>>() {
+        @Override
+        public java.util.Iterator<Map.Entry<K, V>> iterator() {
+          return SubMap.this.iterator();
+        }
+
+        @Override
+        public int size() {
+          return SubMap.this.size();
+        }
+      };
+    }
+
+    @Override
+    public java.util.Iterator<Map.Entry<K, V>> iterator() {
+      return iterator(fromKey);
+    }
+
+    @Override
+    protected java.util.Iterator<Map.Entry<K, V>> iterator(K fromKey) {
+      K start = compare(fromKey, this.fromKey) < 0 ? this.fromKey : fromKey;
+      return new BoundedIterator(AbstractSortedMap.this.iterator(start));
+    }
+
+    private boolean inRange(K key) {
+      return compare(key, fromKey) >= 0 && compare(key, toKey) < 0;
+    }
+
+    private K inRangeOrNull(K key) {
+      return key != null && inRange(key) ? key : null;
+    }
+
+    private void checkRange(K key) {
+      if (!inRange(key)) {
+        throw new IllegalArgumentException("Key is out of range [" + fromKey + ";" + toKey + ")");
+      }
+    }
+
+    // stops iteration at the first key which is not less than toKey
+    private class BoundedIterator implements java.util.Iterator<Map.Entry<K, V>> {
+
+      private final java.util.Iterator<Map.Entry<K, V>> iterator;
+      private Map.Entry<K, V> nextEntry;
+
+      BoundedIterator(java.util.Iterator<Map.Entry<K, V>> iterator) {
+        this.iterator = iterator;
+        advance();
+      }
+
+      @Override
+      public boolean hasNext() {
+        return nextEntry != null;
+      }
+
+      @Override
+      public Map.Entry<K, V> next() {
+        if (nextEntry == null) {
+          throw new NoSuchElementException("There is no such element!");
+        }
+        Map.Entry<K, V> currentEntry = nextEntry;
+        advance();
+        return currentEntry;
+      }
+
+      private void advance() {
+        nextEntry = null;
+        if (iterator.hasNext()) {
+          Map.Entry<K, V> entry = iterator.next();
+          if (compare(entry.getKey(), toKey) < 0) {
+            nextEntry = entry;
+          }
+        }
+      }
+    }
+  }
+}
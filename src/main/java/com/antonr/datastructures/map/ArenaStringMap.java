@@ -0,0 +1,511 @@
+package com.antonr.datastructures.map;
+
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+// Map for string keys without String and Entry objects per mapping: UTF-8 bytes
+// of all keys are stored one after another in a single byte array (arena),
+// entry i is described by offsets[i], lengths[i], hashes[i] and values[i].
+// Index is an open addressing table of entry numbers. Keys can be looked up by
+// CharSequence or by a slice of UTF-8 bytes without creating a String.
+// Unpaired surrogates are encoded as '?', the same as String.getBytes does.
+// Null keys are not supported.
+public class ArenaStringMap<V> implements Map<String, V> {
+
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int BYTES_PER_KEY = 16;
+  private static final int FNV_OFFSET = 0x811C9DC5;
+  private static final int FNV_PRIME = 0x01000193;
+  private byte[] arena;
+  private int arenaSize;
+  // bytes of removed keys, they are dropped when the arena is compacted
+  private int wastedBytes;
+  private int[] offsets;
+  private int[] lengths;
+  private int[] hashes;
+  private Object[] values;
+  // entry number + 1, 0 means empty slot
+  private int[] index;
+  private int size;
+
+  public ArenaStringMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public ArenaStringMap(int initialCapacity) {
+    if (initialCapacity < 1) {
+      throw new IllegalArgumentException("Initial capacity should be at least 1");
+    }
+    arena = new byte[initialCapacity * BYTES_PER_KEY];
+    offsets = new int[initialCapacity];
+    lengths = new int[initialCapacity];
+    hashes = new int[initialCapacity];
+    values = new Object[initialCapacity];
+    index = new int[indexLength(initialCapacity)];
+  }
+
+  @Override
+  public V put(String key, V value) {
+    long hashAndLength = hashAndLength(key);
+    int hash = (int) (hashAndLength >>> 32);
+    int entry = find(key, hash);
+    if (entry >= 0) {
+      return replaceValue(entry, value);
+    }
+    int length = (int) hashAndLength;
+    int offset = allocate(length);
+    for (int i = 0; i < key.length(); ) {
+      int codePoint = codePointAt(key, i);
+      int codePointLength = utf8Length(codePoint);
+      for (int k = 0; k < codePointLength; k++) {
+        arena[offset++] = utf8Byte(codePoint, codePointLength, k);
+      }
+      i += Character.charCount(codePoint);
+    }
+    addEntry(offset - length, length, hash, value);
+    return null;
+  }
+
+  // bytes are copied into the arena, they are expected to be valid UTF-8
+  public V put(byte[] bytes, int offset, int length, V value) {
+    checkSlice(bytes, offset, length);
+    int hash = hash(bytes, offset, length);
+    int entry = find(bytes, offset, length, hash);
+    if (entry >= 0) {
+      return replaceValue(entry, value);
+    }
+    int arenaOffset = allocate(length);
+    System.arraycopy(bytes, offset, arena, arenaOffset, length);
+    addEntry(arenaOffset, length, hash, value);
+    return null;
+  }
+
+  @Override
+  public V get(String key) {
+    return get((CharSequence) key);
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(CharSequence key) {
+    int entry = find(key, (int) (hashAndLength(key) >>> 32));
+    return entry >= 0 ? (V) values[entry] : null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(byte[] bytes, int offset, int length) {
+    checkSlice(bytes, offset, length);
+    int entry = find(bytes, offset, length, hash(bytes, offset, length));
+    return entry >= 0 ? (V) values[entry] : null;
+  }
+
+  @Override
+  public V remove(String key) {
+    return remove((CharSequence) key);
+  }
+
+  public V remove(CharSequence key) {
+    return removeEntry(find(key, (int) (hashAndLength(key) >>> 32)));
+  }
+
+  public V remove(byte[] bytes, int offset, int length) {
+    checkSlice(bytes, offset, length);
+    return removeEntry(find(bytes, offset, length, hash(bytes, offset, length)));
+  }
+
+  @Override
+  public boolean containsKey(String key) {
+    return containsKey((CharSequence) key);
+  }
+
+  public boolean containsKey(CharSequence key) {
+    return find(key, (int) (hashAndLength(key) >>> 32)) >= 0;
+  }
+
+  public boolean containsKey(byte[] bytes, int offset, int length) {
+    checkSlice(bytes, offset, length);
+    return find(bytes, offset, length, hash(bytes, offset, length)) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  // bytes occupied by keys in the arena including not yet compacted removed ones
+  public int arenaSize() {
+    return arenaSize;
+  }
+
+  @Override
+  public Set<Map.Entry<String, V>> entrySet() {
+    return new EntrySet();
+  }
+
+  @Override
+  public java.util.Iterator<Map.Entry<String, V>> iterator() {
+    return new Iterator();
+  }
+
+  private int find(CharSequence key, int hash) {
+    int mask = index.length - 1;
+    for (int slot = hash & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+      int entry = index[slot] - 1;
+      if (hashes[entry] == hash && keyEquals(entry, key)) {
+        return entry;
+      }
+    }
+    return -1;
+  }
+
+  private int find(byte[] bytes, int offset, int length, int hash) {
+    int mask = index.length - 1;
+    for (int slot = hash & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+      int entry = index[slot] - 1;
+      if (hashes[entry] == hash && keyEquals(entry, bytes, offset, length)) {
+        return entry;
+      }
+    }
+    return -1;
+  }
+
+  // compares the key with the entry encoding it on the fly
+  private boolean keyEquals(int entry, CharSequence key) {
+    int position = offsets[entry];
+    int end = position + lengths[entry];
+    for (int i = 0; i < key.length(); ) {
+      int codePoint = codePointAt(key, i);
+      int codePointLength = utf8Length(codePoint);
+      if (position + codePointLength > end) {
+        return false;
+      }
+      for (int k = 0; k < codePointLength; k++) {
+        if (arena[position++] != utf8Byte(codePoint, codePointLength, k)) {
+          return false;
+        }
+      }
+      i += Character.charCount(codePoint);
+    }
+    return position == end;
+  }
+
+  private boolean keyEquals(int entry, byte[] bytes, int offset, int length) {
+    if (lengths[entry] != length) {
+      return false;
+    }
+    int position = offsets[entry];
+    for (int i = 0; i < length; i++) {
+      if (arena[position + i] != bytes[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V replaceValue(int entry, V value) {
+    V oldValue = (V) values[entry];
+    values[entry] = value;
+    return oldValue;
+  }
+
+  private void addEntry(int offset, int length, int hash, V value) {
+    if (size == offsets.length) {
+      grow();
+    }
+    offsets[size] = offset;
+    lengths[size] = length;
+    hashes[size] = hash;
+    values[size] = value;
+    size++;
+    insertIntoIndex(size - 1);
+  }
+
+  // the last entry is moved to the place of the removed one to keep entries dense
+  @SuppressWarnings("unchecked")
+  private V removeEntry(int entry) {
+    if (entry < 0) {
+      return null;
+    }
+    V oldValue = (V) values[entry];
+    removeFromIndex(entry);
+    wastedBytes += lengths[entry];
+    int last = size - 1;
+    if (entry != last) {
+      index[slotOf(last)] = entry + 1;
+      offsets[entry] = offsets[last];
+      lengths[entry] = lengths[last];
+      hashes[entry] = hashes[last];
+      values[entry] = values[last];
+    }
+    values[last] = null;
+    size--;
+    return oldValue;
+  }
+
+  private void insertIntoIndex(int entry) {
+    int mask = index.length - 1;
+    int slot = hashes[entry] & mask;
+    while (index[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    index[slot] = entry + 1;
+  }
+
+  private int slotOf(int entry) {
+    int mask = index.length - 1;
+    int slot = hashes[entry] & mask;
+    while (index[slot] != entry + 1) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  // backward shift deletion: following entries of the cluster are moved into the hole
+  // if it is on their probe path, so lookups never need tombstones
+  private void removeFromIndex(int entry) {
+    int mask = index.length - 1;
+    int hole = slotOf(entry);
+    for (int slot = (hole + 1) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+      int ideal = hashes[index[slot] - 1] & mask;
+      if (((slot - ideal) & mask) >= ((slot - hole) & mask)) {
+        index[hole] = index[slot];
+        hole = slot;
+      }
+    }
+    index[hole] = 0;
+  }
+
+  private void grow() {
+    int capacity = offsets.length * 2;
+    offsets = Arrays.copyOf(offsets, capacity);
+    lengths = Arrays.copyOf(lengths, capacity);
+    hashes = Arrays.copyOf(hashes, capacity);
+    values = Arrays.copyOf(values, capacity);
+    index = new int[indexLength(capacity)];
+    for (int entry = 0; entry < size; entry++) {
+      insertIntoIndex(entry);
+    }
+  }
+
+  // returns offset of length free bytes at the end of the arena
+  private int allocate(int length) {
+    if (arenaSize + length > arena.length) {
+      if (wastedBytes >= arenaSize / 2) {
+        compact();
+      }
+      if (arenaSize + length > arena.length) {
+        arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + length));
+      }
+    }
+    int offset = arenaSize;
+    arenaSize += length;
+    return offset;
+  }
+
+  // copies keys of live entries to the beginning of the arena
+  private void compact() {
+    byte[] compacted = new byte[arena.length];
+    int position = 0;
+    for (int entry = 0; entry < size; entry++) {
+      System.arraycopy(arena, offsets[entry], compacted, position, lengths[entry]);
+      offsets[entry] = position;
+      position += lengths[entry];
+    }
+    arena = compacted;
+    arenaSize = position;
+    wastedBytes = 0;
+  }
+
+  // index is at most half full
+  private static int indexLength(int capacity) {
+    int length = 2;
+    while (length < capacity * 2) {
+      length *= 2;
+    }
+    return length;
+  }
+
+  private static void checkSlice(byte[] bytes, int offset, int length) {
+    if (offset < 0 || length < 0 || offset > bytes.length - length) {
+      throw new IndexOutOfBoundsException(
+          "Slice " + offset + ".." + (offset + length) + " is out of array of length "
+              + bytes.length);
+    }
+  }
+
+  // hash in the upper half, count of UTF-8 bytes in the lower one
+  private static long hashAndLength(CharSequence key) {
+    int hash = FNV_OFFSET;
+    int length = 0;
+    for (int i = 0; i < key.length(); ) {
+      int codePoint = codePointAt(key, i);
+      int codePointLength = utf8Length(codePoint);
+      for (int k = 0; k < codePointLength; k++) {
+        hash = (hash ^ (utf8Byte(codePoint, codePointLength, k) & 0xFF)) * FNV_PRIME;
+      }
+      length += codePointLength;
+      i += Character.charCount(codePoint);
+    }
+    return ((long) mix(hash) << 32) | length;
+  }
+
+  private static int hash(byte[] bytes, int offset, int length) {
+    int hash = FNV_OFFSET;
+    for (int i = offset; i < offset + length; i++) {
+      hash = (hash ^ (bytes[i] & 0xFF)) * FNV_PRIME;
+    }
+    return mix(hash);
+  }
+
+  // finalizer of MurmurHash3, FNV leaves the low bits weak for short keys
+  private static int mix(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+
+  // code point at i, '?' for an unpaired surrogate
+  private static int codePointAt(CharSequence key, int i) {
+    char c = key.charAt(i);
+    if (!Character.isSurrogate(c)) {
+      return c;
+    }
+    if (Character.isHighSurrogate(c) && i + 1 < key.length()
+        && Character.isLowSurrogate(key.charAt(i + 1))) {
+      return Character.toCodePoint(c, key.charAt(i + 1));
+    }
+    return '?';
+  }
+
+  private static int utf8Length(int codePoint) {
+    if (codePoint < 0x80) {
+      return 1;
+    }
+    if (codePoint < 0x800) {
+      return 2;
+    }
+    return codePoint < 0x10000 ? 3 : 4;
+  }
+
+  // k-th byte of the UTF-8 encoding of the code point
+  private static byte utf8Byte(int codePoint, int length, int k) {
+    if (length == 1) {
+      return (byte) codePoint;
+    }
+    int bits = codePoint >>> (6 * (length - 1 - k));
+    if (k == 0) {
+      // leading byte: 110xxxxx, 1110xxxx or 11110xxx
+      return (byte) (((0xF00 >>> length) & 0xFF) | bits);
+    }
+    return (byte) (0x80 | (bits & 0x3F));
+  }
+
+  private class Entry implements Map.Entry<String, V> {
+
+    private final int entry;
+
+    Entry(int entry) {
+      this.entry = entry;
+    }
+
+    @Override
+    public String getKey() {
+      return new String(arena, offsets[entry], lengths[entry], StandardCharsets.UTF_8);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getValue() {
+      return (V) values[entry];
+    }
+
+    @Override
+    public V setValue(V value) {
+      return replaceValue(entry, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return Objects.equals(e.getKey(), getKey()) && Objects.equals(e.getValue(), getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+    }
+  }
+
+  private class Iterator implements java.util.Iterator<Map.Entry<String, V>> {
+
+    private int nextEntry;
+    private int currentEntry = -1;
+
+    @Override
+    public boolean hasNext() {
+      return nextEntry < size;
+    }
+
+    @Override
+    public Map.Entry<String, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException("There is no such element!");
+      }
+      currentEntry = nextEntry++;
+      return new Entry(currentEntry);
+    }
+
+    @Override
+    public void remove() {
+      if (currentEntry < 0) {
+        throw new IllegalStateException(
+            "There is no elements for removing, counter before fist element!");
+      }
+      removeEntry(currentEntry);
+      // the last entry was moved to the removed position
+      nextEntry = currentEntry;
+      currentEntry = -1;
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<String, V>> {
+
+    public java.util.Iterator<Map.Entry<String, V>> iterator() {
+      return new Iterator();
+    }
+
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry) || !(((Map.Entry<?, ?>) o).getKey() instanceof String)) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      String key = (String) e.getKey();
+      return containsKey(key) && Objects.equals(get(key), e.getValue());
+    }
+
+    public boolean remove(Object o) {
+      if (!contains(o)) {
+        return false;
+      }
+      ArenaStringMap.this.remove((String) ((Map.Entry<?, ?>) o).getKey());
+      return true;
+    }
+
+    public int size() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,667 @@
+package com.antonr.datastructures.map;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+// Entries are kept only in leaves, leaves are linked with each other,
+// so range scans don't need to go through the upper levels of the tree
+public class BPlusTreeMap<K, V> extends AbstractSortedMap<K, V> {
+
+  private static final int DEFAULT_NODE_CAPACITY = 64;
+  private final int nodeCapacity;
+  private final int minNodeSize;
+  private Node root;
+  private Leaf firstLeaf;
+  // count of branch levels above the leaves
+  private int height;
+  private int size;
+
+  public BPlusTreeMap() {
+    this(DEFAULT_NODE_CAPACITY, null);
+  }
+
+  public BPlusTreeMap(Comparator<? super K> comparator) {
+    this(DEFAULT_NODE_CAPACITY, comparator);
+  }
+
+  public BPlusTreeMap(int nodeCapacity, Comparator<? super K> comparator) {
+    super(comparator);
+    if (nodeCapacity < 3) {
+      throw new IllegalArgumentException("Node capacity should be at least 3");
+    }
+    this.nodeCapacity = nodeCapacity;
+    this.minNodeSize = nodeCapacity / 2;
+  }
+
+  // builds the tree bottom-up in O(n), entries must be sorted by key without duplicates
+  public static <K, V> BPlusTreeMap<K, V> fromSorted(
+      Iterable<? extends Map.Entry<K, V>> sortedEntries, Comparator<? super K> comparator) {
+    BPlusTreeMap<K, V> map = new BPlusTreeMap<>(comparator);
+    map.bulkLoad(sortedEntries);
+    return map;
+  }
+
+  @Override
+  public V put(K key, V value) {
+    if (root == null) {
+      firstLeaf = new Leaf(nodeCapacity);
+      root = firstLeaf;
+    }
+    Branch[] path = new Branch[height];
+    int[] childIndexes = new int[height];
+    Leaf leaf = findLeaf(key, path, childIndexes);
+    int index = search(leaf, key);
+    if (index >= 0) {
+      V oldValue = valueAt(leaf, index);
+      leaf.values[index] = value;
+      return oldValue;
+    }
+    leaf.insert(-index - 1, key, value);
+    size++;
+
+    Node node = leaf;
+    for (int depth = height - 1; depth >= 0 && node.count > nodeCapacity; depth--) {
+      Node right = node.split();
+      path[depth].insert(childIndexes[depth], right.separator, right);
+      node = path[depth];
+    }
+    if (node.count > nodeCapacity) {
+      Node right = node.split();
+      Branch newRoot = new Branch(nodeCapacity);
+      newRoot.children[0] = node;
+      newRoot.insert(0, right.separator, right);
+      root = newRoot;
+      height++;
+    }
+    return null;
+  }
+
+  @Override
+  public V get(K key) {
+    if (root == null) {
+      return null;
+    }
+    Leaf leaf = findLeaf(key, null, null);
+    int index = search(leaf, key);
+    return index >= 0 ? valueAt(leaf, index) : null;
+  }
+
+  @Override
+  public V remove(K key) {
+    if (root == null) {
+      return null;
+    }
+    Branch[] path = new Branch[height];
+    int[] childIndexes = new int[height];
+    Leaf leaf = findLeaf(key, path, childIndexes);
+    int index = search(leaf, key);
+    if (index < 0) {
+      return null;
+    }
+    V oldValue = valueAt(leaf, index);
+    leaf.delete(index);
+    size--;
+
+    // separators in branches are not updated: they still route keys correctly
+    Node node = leaf;
+    for (int depth = height - 1; depth >= 0 && node.count < minNodeSize; depth--) {
+      fixUnderflow(path[depth], childIndexes[depth]);
+      node = path[depth];
+    }
+    if (size == 0) {
+      root = firstLeaf = null;
+      height = 0;
+    } else if (height > 0 && root.count == 0) {
+      root = ((Branch) root).children[0];
+      height--;
+    }
+    return oldValue;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return root != null && search(findLeaf(key, null, null), key) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public K firstKey() {
+    if (root == null) {
+      throw new NoSuchElementException("Map is empty");
+    }
+    return keyAt(firstLeaf, 0);
+  }
+
+  @Override
+  public K lastKey() {
+    if (root == null) {
+      throw new NoSuchElementException("Map is empty");
+    }
+    Node node = root;
+    for (int depth = 0; depth < height; depth++) {
+      node = ((Branch) node).children[node.count];
+    }
+    return keyAt(node, node.count - 1);
+  }
+
+  @Override
+  public K floorKey(K key) {
+    return findKey(key, true, true);
+  }
+
+  @Override
+  public K ceilingKey(K key) {
+    return findKey(key, true, false);
+  }
+
+  @Override
+  public K lowerKey(K key) {
+    return findKey(key, false, true);
+  }
+
+  @Override
+  public K higherKey(K key) {
+    return findKey(key, false, false);
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new EntrySet();
+  }
+
+  @Override
+  public java.util.Iterator<Map.Entry<K, V>> iterator() {
+    return new Iterator(firstLeaf, 0);
+  }
+
+  @Override
+  protected java.util.Iterator<Map.Entry<K, V>> iterator(K fromKey) {
+    if (root == null) {
+      return new Iterator(null, 0);
+    }
+    Leaf leaf = findLeaf(fromKey, null, null);
+    int index = search(leaf, fromKey);
+    return new Iterator(leaf, index >= 0 ? index : -index - 1);
+  }
+
+  // collects path from the root to the leaf if path is not null
+  private Leaf findLeaf(K key, Branch[] path, int[] childIndexes) {
+    Node node = root;
+    for (int depth = 0; depth < height; depth++) {
+      Branch branch = (Branch) node;
+      // keys equal to the separator are in the right child
+      int index = search(branch, key);
+      index = index >= 0 ? index + 1 : -index - 1;
+      if (path != null) {
+        path[depth] = branch;
+        childIndexes[depth] = index;
+      }
+      node = branch.children[index];
+    }
+    return (Leaf) node;
+  }
+
+  // binary search, returns (-(insertion point) - 1) if there is no such key
+  private int search(Node node, K key) {
+    int low = 0;
+    int high = node.count - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = compare(keyAt(node, middle), key);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -(low + 1);
+  }
+
+  private K findKey(K key, boolean inclusive, boolean lower) {
+    if (root == null) {
+      return null;
+    }
+    Leaf leaf = findLeaf(key, null, null);
+    int index = search(leaf, key);
+    if (index >= 0 && inclusive) {
+      return keyAt(leaf, index);
+    }
+    if (lower) {
+      index = index >= 0 ? index - 1 : -index - 2;
+      if (index < 0) {
+        leaf = leaf.previous;
+        return leaf == null ? null : keyAt(leaf, leaf.count - 1);
+      }
+    } else {
+      index = index >= 0 ? index + 1 : -index - 1;
+      if (index >= leaf.count) {
+        leaf = leaf.next;
+        return leaf == null ? null : keyAt(leaf, 0);
+      }
+    }
+    return keyAt(leaf, index);
+  }
+
+  private void fixUnderflow(Branch parent, int childIndex) {
+    Node child = parent.children[childIndex];
+    Node left = childIndex > 0 ? parent.children[childIndex - 1] : null;
+    Node right = childIndex < parent.count ? parent.children[childIndex + 1] : null;
+    if (left != null && left.count > minNodeSize) {
+      child.borrowFromLeft(left, parent, childIndex - 1);
+    } else if (right != null && right.count > minNodeSize) {
+      child.borrowFromRight(right, parent, childIndex);
+    } else if (left != null) {
+      left.merge(child, parent.keys[childIndex - 1]);
+      parent.delete(childIndex - 1);
+    } else {
+      child.merge(right, parent.keys[childIndex]);
+      parent.delete(childIndex);
+    }
+  }
+
+  private void bulkLoad(Iterable<? extends Map.Entry<K, V>> sortedEntries) {
+    Object[] keys = new Object[nodeCapacity];
+    Object[] values = new Object[nodeCapacity];
+    int count = 0;
+    K previousKey = null;
+    for (Map.Entry<K, V> entry : sortedEntries) {
+      if (count > 0 && compare(entry.getKey(), previousKey) <= 0) {
+        throw new IllegalArgumentException(
+            "Entries must be sorted by key in ascending order without duplicates");
+      }
+      if (count == keys.length) {
+        keys = Arrays.copyOf(keys, count * 2);
+        values = Arrays.copyOf(values, count * 2);
+      }
+      keys[count] = entry.getKey();
+      values[count] = entry.getValue();
+      previousKey = entry.getKey();
+      count++;
+    }
+    if (count == 0) {
+      return;
+    }
+
+    int[] leafSizes = groupSizes(count, nodeCapacity, minNodeSize);
+    Node[] level = new Node[leafSizes.length];
+    Leaf previous = null;
+    int offset = 0;
+    for (int i = 0; i < leafSizes.length; i++) {
+      Leaf leaf = new Leaf(nodeCapacity);
+      System.arraycopy(keys, offset, leaf.keys, 0, leafSizes[i]);
+      System.arraycopy(values, offset, leaf.values, 0, leafSizes[i]);
+      leaf.count = leafSizes[i];
+      leaf.separator = keys[offset];
+      leaf.previous = previous;
+      if (previous != null) {
+        previous.next = leaf;
+      }
+      previous = leaf;
+      level[i] = leaf;
+      offset += leafSizes[i];
+    }
+    firstLeaf = (Leaf) level[0];
+
+    while (level.length > 1) {
+      // branch with n keys has n + 1 children
+      int[] branchSizes = groupSizes(level.length, nodeCapacity + 1, minNodeSize + 1);
+      Node[] upperLevel = new Node[branchSizes.length];
+      offset = 0;
+      for (int i = 0; i < branchSizes.length; i++) {
+        Branch branch = new Branch(nodeCapacity);
+        branch.children[0] = level[offset];
+        branch.separator = level[offset].separator;
+        for (int j = 1; j < branchSizes[i]; j++) {
+          branch.keys[j - 1] = level[offset + j].separator;
+          branch.children[j] = level[offset + j];
+        }
+        branch.count = branchSizes[i] - 1;
+        upperLevel[i] = branch;
+        offset += branchSizes[i];
+      }
+      level = upperLevel;
+      height++;
+    }
+    root = level[0];
+    size = count;
+  }
+
+  // splits total into groups of max elements, the last two groups
+  // are evened out if the last one would be smaller than min
+  private static int[] groupSizes(int total, int max, int min) {
+    int[] sizes = new int[(total + max - 1) / max];
+    Arrays.fill(sizes, max);
+    int last = total - (sizes.length - 1) * max;
+    sizes[sizes.length - 1] = last;
+    if (sizes.length > 1 && last < min) {
+      int lastTwo = max + last;
+      sizes[sizes.length - 2] = lastTwo - lastTwo / 2;
+      sizes[sizes.length - 1] = lastTwo / 2;
+    }
+    return sizes;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K> K keyAt(Node node, int index) {
+    return (K) node.keys[index];
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <V> V valueAt(Leaf leaf, int index) {
+    return (V) leaf.values[index];
+  }
+
+  private abstract static class Node {
+
+    final Object[] keys;
+    int count;
+    // the smallest key of the subtree, is set when the node is created by split
+    Object separator;
+
+    // one extra slot, so node can overflow before it is split
+    Node(int capacity) {
+      keys = new Object[capacity + 1];
+    }
+
+    // moves the upper half into a new right sibling
+    abstract Node split();
+
+    abstract void borrowFromLeft(Node left, Branch parent, int separatorIndex);
+
+    abstract void borrowFromRight(Node right, Branch parent, int separatorIndex);
+
+    // appends all entries of the right sibling to this node
+    abstract void merge(Node right, Object separator);
+  }
+
+  private static final class Leaf extends Node {
+
+    final Object[] values;
+    Leaf next;
+    Leaf previous;
+
+    Leaf(int capacity) {
+      super(capacity);
+      values = new Object[capacity + 1];
+    }
+
+    void insert(int index, Object key, Object value) {
+      System.arraycopy(keys, index, keys, index + 1, count - index);
+      System.arraycopy(values, index, values, index + 1, count - index);
+      keys[index] = key;
+      values[index] = value;
+      count++;
+    }
+
+    void delete(int index) {
+      System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+      System.arraycopy(values, index + 1, values, index, count - index - 1);
+      count--;
+      keys[count] = null;
+      values[count] = null;
+    }
+
+    @Override
+    Node split() {
+      Leaf right = new Leaf(keys.length - 1);
+      int leftCount = count / 2;
+      right.count = count - leftCount;
+      System.arraycopy(keys, leftCount, right.keys, 0, right.count);
+      System.arraycopy(values, leftCount, right.values, 0, right.count);
+      Arrays.fill(keys, leftCount, count, null);
+      Arrays.fill(values, leftCount, count, null);
+      count = leftCount;
+      right.separator = right.keys[0];
+      right.next = next;
+      right.previous = this;
+      if (next != null) {
+        next.previous = right;
+      }
+      next = right;
+      return right;
+    }
+
+    @Override
+    void borrowFromLeft(Node left, Branch parent, int separatorIndex) {
+      Leaf leftLeaf = (Leaf) left;
+      insert(0, leftLeaf.keys[leftLeaf.count - 1], leftLeaf.values[leftLeaf.count - 1]);
+      leftLeaf.delete(leftLeaf.count - 1);
+      parent.keys[separatorIndex] = keys[0];
+    }
+
+    @Override
+    void borrowFromRight(Node right, Branch parent, int separatorIndex) {
+      Leaf rightLeaf = (Leaf) right;
+      insert(count, rightLeaf.keys[0], rightLeaf.values[0]);
+      rightLeaf.delete(0);
+      parent.keys[separatorIndex] = rightLeaf.keys[0];
+    }
+
+    @Override
+    void merge(Node right, Object separator) {
+      Leaf rightLeaf = (Leaf) right;
+      System.arraycopy(rightLeaf.keys, 0, keys, count, rightLeaf.count);
+      System.arraycopy(rightLeaf.values, 0, values, count, rightLeaf.count);
+      count += rightLeaf.count;
+      next = rightLeaf.next;
+      if (next != null) {
+        next.previous = this;
+      }
+    }
+  }
+
+  // branch with count keys has count + 1 children,
+  // child i contains keys in [keys[i - 1], keys[i])
+  private static final class Branch extends Node {
+
+    final Node[] children;
+
+    Branch(int capacity) {
+      super(capacity);
+      children = new Node[capacity + 2];
+    }
+
+    // inserts key and its right child
+    void insert(int index, Object key, Node rightChild) {
+      System.arraycopy(keys, index, keys, index + 1, count - index);
+      System.arraycopy(children, index + 1, children, index + 2, count - index);
+      keys[index] = key;
+      children[index + 1] = rightChild;
+      count++;
+    }
+
+    // deletes key and its right child
+    void delete(int index) {
+      System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+      System.arraycopy(children, index + 2, children, index + 1, count - index - 1);
+      count--;
+      keys[count] = null;
+      children[count + 1] = null;
+    }
+
+    @Override
+    Node split() {
+      Branch right = new Branch(keys.length - 1);
+      int middle = count / 2;
+      right.count = count - middle - 1;
+      System.arraycopy(keys, middle + 1, right.keys, 0, right.count);
+      System.arraycopy(children, middle + 1, right.children, 0, right.count + 1);
+      // key from the middle moves up to the parent
+      right.separator = keys[middle];
+      Arrays.fill(keys, middle, count, null);
+      Arrays.fill(children, middle + 1, count + 1, null);
+      count = middle;
+      return right;
+    }
+
+    @Override
+    void borrowFromLeft(Node left, Branch parent, int separatorIndex) {
+      Branch leftBranch = (Branch) left;
+      System.arraycopy(keys, 0, keys, 1, count);
+      System.arraycopy(children, 0, children, 1, count + 1);
+      keys[0] = parent.keys[separatorIndex];
+      children[0] = leftBranch.children[leftBranch.count];
+      count++;
+      parent.keys[separatorIndex] = leftBranch.keys[leftBranch.count - 1];
+      leftBranch.children[leftBranch.count] = null;
+      leftBranch.keys[leftBranch.count - 1] = null;
+      leftBranch.count--;
+    }
+
+    @Override
+    void borrowFromRight(Node right, Branch parent, int separatorIndex) {
+      Branch rightBranch = (Branch) right;
+      keys[count] = parent.keys[separatorIndex];
+      children[count + 1] = rightBranch.children[0];
+      count++;
+      parent.keys[separatorIndex] = rightBranch.keys[0];
+      System.arraycopy(rightBranch.keys, 1, rightBranch.keys, 0, rightBranch.count - 1);
+      System.arraycopy(rightBranch.children, 1, rightBranch.children, 0, rightBranch.count);
+      rightBranch.count--;
+      rightBranch.keys[rightBranch.count] = null;
+      rightBranch.children[rightBranch.count + 1] = null;
+    }
+
+    @Override
+    void merge(Node right, Object separator) {
+      Branch rightBranch = (Branch) right;
+      keys[count] = separator;
+      System.arraycopy(rightBranch.keys, 0, keys, count + 1, rightBranch.count);
+      System.arraycopy(rightBranch.children, 0, children, count + 1, rightBranch.count + 1);
+      count += rightBranch.count + 1;
+    }
+  }
+
+  private class Entry implements Map.Entry<K, V> {
+
+    private final K key;
+    private V value;
+
+    Entry(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      this.value = value;
+      return put(key, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return Objects.equals(e.getKey(), key) && Objects.equals(e.getValue(), value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(key) ^ Objects.hashCode(value);
+    }
+  }
+
+  private class Iterator implements java.util.Iterator<Map.Entry<K, V>> {
+
+    private Leaf leaf;
+    private int index;
+    private Entry currentEntry;
+
+    Iterator(Leaf leaf, int index) {
+      this.leaf = leaf;
+      this.index = index;
+      skipFinishedLeaf();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return leaf != null;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (leaf == null) {
+        throw new NoSuchElementException("There is no such element!");
+      }
+      currentEntry = new Entry(keyAt(leaf, index), valueAt(leaf, index));
+      index++;
+      skipFinishedLeaf();
+      return currentEntry;
+    }
+
+    @Override
+    public void remove() {
+      if (currentEntry == null) {
+        throw new IllegalStateException(
+            "There is no elements for removing, counter before fist element!");
+      }
+      BPlusTreeMap.this.remove(currentEntry.getKey());
+      // leaves could be merged, so the position is searched again
+      K nextKey = higherKey(currentEntry.getKey());
+      leaf = null;
+      if (nextKey != null) {
+        leaf = findLeaf(nextKey, null, null);
+        index = search(leaf, nextKey);
+      }
+      currentEntry = null;
+    }
+
+    private void skipFinishedLeaf() {
+      if (leaf != null && index >= leaf.count) {
+        leaf = leaf.next;
+        index = 0;
+      }
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    public java.util.Iterator<Map.Entry<K, V>> iterator() {
+      return BPlusTreeMap.this.iterator();
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<K, V> e = (Map.Entry<K, V>) o;
+      return containsKey(e.getKey()) && Objects.equals(get(e.getKey()), e.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+      Map.Entry<K, V> entry = (Map.Entry<K, V>) o;
+      return BPlusTreeMap.this.remove(entry.getKey()) != null;
+    }
+
+    public int size() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.antonr.datastructures.map;
+
+import com.antonr.datastructures.filter.BlockedBloomFilter;
+import java.util.Iterator;
+import java.util.Set;
+
+// Map decorator which answers lookups of absent keys by the bloom filter
+// without touching the underlying map. Removed keys stay in the filter,
+// so they cost a real lookup until the filter is rebuilt.
+public class BloomFilterMap<K, V> implements Map<K, V> {
+
+  private final Map<K, V> map;
+  private final BlockedBloomFilter<K> filter;
+
+  public BloomFilterMap(int expectedSize, double falsePositiveRate) {
+    this(new HashMap<>(), new BlockedBloomFilter<>(expectedSize, falsePositiveRate));
+  }
+
+  // filter must already contain all keys of the map, e.g. it was persisted together with it
+  public BloomFilterMap(Map<K, V> map, BlockedBloomFilter<K> filter) {
+    this.map = map;
+    this.filter = filter;
+  }
+
+  @Override
+  public V put(K key, V value) {
+    filter.add(key);
+    return map.put(key, value);
+  }
+
+  @Override
+  public V get(K key) {
+    return filter.mightContain(key) ? map.get(key) : null;
+  }
+
+  @Override
+  public V remove(K key) {
+    return filter.mightContain(key) ? map.remove(key) : null;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return filter.mightContain(key) && map.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return map.size();
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return map.entrySet();
+  }
+
+  @Override
+  public Iterator<Entry<K, V>> iterator() {
+    return map.iterator();
+  }
+
+  public BlockedBloomFilter<K> getFilter() {
+    return filter;
+  }
+}
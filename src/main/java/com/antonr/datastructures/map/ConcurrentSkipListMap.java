@@ -0,0 +1,451 @@
+package com.antonr.datastructures.map;
+
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicMarkableReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free skip list (Herlihy & Shavit), all operations are done with CAS.
+// Removal is done in three steps:
+// 1) value of the node is set to null - from this moment key is absent in the map
+// 2) links from the node on all levels are marked
+// 3) marked nodes are unlinked by any thread which passes through them
+// Null keys and values are not allowed, because null value marks removed node.
+public class ConcurrentSkipListMap<K, V> extends AbstractSortedMap<K, V> {
+
+  private static final int MAX_LEVEL = 32;
+  private final Node<K, V> head = new Node<>(null, null, MAX_LEVEL);
+  private final LongAdder size = new LongAdder();
+
+  public ConcurrentSkipListMap() {
+    this(null);
+  }
+
+  public ConcurrentSkipListMap(Comparator<? super K> comparator) {
+    super(comparator);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(K key, V value) {
+    Objects.requireNonNull(key, "Null keys are not allowed");
+    Objects.requireNonNull(value, "Null values are not allowed");
+    Node<K, V>[] predecessors = newNodeArray();
+    Node<K, V>[] successors = newNodeArray();
+    int topLevel = randomLevel();
+    while (true) {
+      if (find(key, predecessors, successors)) {
+        Node<K, V> node = successors[0];
+        Object oldValue = node.value;
+        if (oldValue == null) {
+          // node is being removed, help to finish it and try again
+          markAllLevels(node);
+        } else if (node.casValue(oldValue, value)) {
+          return (V) oldValue;
+        }
+        continue;
+      }
+      Node<K, V> newNode = new Node<>(key, value, topLevel);
+      for (int level = 0; level < topLevel; level++) {
+        newNode.next[level].set(successors[level], false);
+      }
+      // linking on the bottom level adds the key to the map
+      if (!predecessors[0].next[0].compareAndSet(successors[0], newNode, false, false)) {
+        continue;
+      }
+      size.increment();
+      for (int level = 1; level < topLevel; level++) {
+        while (true) {
+          Node<K, V> successor = successors[level];
+          Node<K, V> currentNext = newNode.next[level].getReference();
+          // stop linking if the node is already removed
+          if (currentNext != successor
+              && !newNode.next[level].compareAndSet(currentNext, successor, false, false)) {
+            return null;
+          }
+          if (predecessors[level].next[level].compareAndSet(successor, newNode, false, false)) {
+            break;
+          }
+          if (!find(key, predecessors, successors) || successors[0] != newNode) {
+            return null;
+          }
+        }
+      }
+      return null;
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(K key) {
+    Node<K, V> node = findNode(key, true, false);
+    if (node != null && compare(node.key, key) == 0) {
+      return (V) node.value;
+    }
+    return null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(K key) {
+    Objects.requireNonNull(key, "Null keys are not allowed");
+    Node<K, V>[] predecessors = newNodeArray();
+    Node<K, V>[] successors = newNodeArray();
+    while (true) {
+      if (!find(key, predecessors, successors)) {
+        return null;
+      }
+      Node<K, V> node = successors[0];
+      Object oldValue = node.value;
+      if (oldValue == null) {
+        // somebody else has already removed it
+        markAllLevels(node);
+        find(key, predecessors, successors);
+        return null;
+      }
+      if (node.casValue(oldValue, null)) {
+        size.decrement();
+        markAllLevels(node);
+        // unlinks the marked node
+        find(key, predecessors, successors);
+        return (V) oldValue;
+      }
+    }
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public int size() {
+    return size.intValue();
+  }
+
+  @Override
+  public K firstKey() {
+    Node<K, V> node = nextAlive(head);
+    if (node == null) {
+      throw new NoSuchElementException("Map is empty");
+    }
+    return node.key;
+  }
+
+  @Override
+  public K lastKey() {
+    Node<K, V> node = head;
+    for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+      Node<K, V> current = node.next[level].getReference();
+      while (current != null) {
+        if (!current.next[level].isMarked()) {
+          node = current;
+        }
+        current = current.next[level].getReference();
+      }
+    }
+    if (node != head && node.value == null) {
+      node = findNode(node.key, false, true);
+    }
+    if (node == null || node == head) {
+      throw new NoSuchElementException("Map is empty");
+    }
+    return node.key;
+  }
+
+  @Override
+  public K floorKey(K key) {
+    return keyOrNull(findNode(key, true, true));
+  }
+
+  @Override
+  public K ceilingKey(K key) {
+    return keyOrNull(findNode(key, true, false));
+  }
+
+  @Override
+  public K lowerKey(K key) {
+    return keyOrNull(findNode(key, false, true));
+  }
+
+  @Override
+  public K higherKey(K key) {
+    return keyOrNull(findNode(key, false, false));
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new EntrySet();
+  }
+
+  // iterators are weakly consistent: they never throw ConcurrentModificationException
+  // and may reflect modifications which are done after they were created
+  @Override
+  public java.util.Iterator<Map.Entry<K, V>> iterator() {
+    return new Iterator(nextAlive(head));
+  }
+
+  @Override
+  protected java.util.Iterator<Map.Entry<K, V>> iterator(K fromKey) {
+    return new Iterator(findNode(fromKey, true, false));
+  }
+
+  // fills predecessors and successors of the key on every level,
+  // unlinks marked nodes on the way, returns true if key is found on the bottom level
+  private boolean find(K key, Node<K, V>[] predecessors, Node<K, V>[] successors) {
+    boolean[] marked = {false};
+    retry:
+    while (true) {
+      Node<K, V> predecessor = head;
+      for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+        Node<K, V> current = predecessor.next[level].getReference();
+        while (current != null) {
+          Node<K, V> successor = current.next[level].get(marked);
+          while (marked[0]) {
+            if (!predecessor.next[level].compareAndSet(current, successor, false, false)) {
+              continue retry;
+            }
+            current = successor;
+            if (current == null) {
+              break;
+            }
+            successor = current.next[level].get(marked);
+          }
+          if (current == null || compare(current.key, key) >= 0) {
+            break;
+          }
+          predecessor = current;
+          current = successor;
+        }
+        predecessors[level] = predecessor;
+        successors[level] = current;
+      }
+      return successors[0] != null && compare(successors[0].key, key) == 0;
+    }
+  }
+
+  // returns the alive node nearest to the key without modifying the list:
+  // lower - the greatest node less than key, otherwise the least node greater than key,
+  // inclusive - node with the same key is also suitable
+  private Node<K, V> findNode(K key, boolean inclusive, boolean lower) {
+    while (true) {
+      Node<K, V> predecessor = head;
+      for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+        Node<K, V> current = predecessor.next[level].getReference();
+        while (current != null) {
+          int comparison = compare(current.key, key);
+          boolean before = comparison < 0 || (comparison == 0 && lower == inclusive);
+          if (!before) {
+            break;
+          }
+          if (!current.next[level].isMarked()) {
+            predecessor = current;
+          }
+          current = current.next[level].getReference();
+        }
+      }
+      if (!lower) {
+        return nextAlive(predecessor);
+      }
+      if (predecessor == head) {
+        return null;
+      }
+      if (predecessor.value != null) {
+        return predecessor;
+      }
+      // predecessor was removed during the search, search before it
+      key = predecessor.key;
+      inclusive = false;
+    }
+  }
+
+  private Node<K, V> nextAlive(Node<K, V> node) {
+    Node<K, V> current = node.next[0].getReference();
+    while (current != null && current.value == null) {
+      current = current.next[0].getReference();
+    }
+    return current;
+  }
+
+  private void markAllLevels(Node<K, V> node) {
+    boolean[] marked = {false};
+    for (int level = node.next.length - 1; level >= 0; level--) {
+      Node<K, V> successor = node.next[level].get(marked);
+      while (!marked[0]) {
+        node.next[level].compareAndSet(successor, successor, false, true);
+        successor = node.next[level].get(marked);
+      }
+    }
+  }
+
+  private K keyOrNull(Node<K, V> node) {
+    return node == null ? null : node.key;
+  }
+
+  // level is chosen with geometric distribution: 1 with probability 1/2, 2 - 1/4 and so on
+  private static int randomLevel() {
+    int random = ThreadLocalRandom.current().nextInt();
+    int level = 1;
+    while ((random & 1) != 0 && level < MAX_LEVEL) {
+      level++;
+      random >>>= 1;
+    }
+    return level;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K, V> Node<K, V>[] newNodeArray() {
+    return (Node<K, V>[]) new Node[MAX_LEVEL];
+  }
+
+  private static class Node<K, V> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Object> VALUE_UPDATER =
+        AtomicReferenceFieldUpdater.newUpdater(Node.class, Object.class, "value");
+
+    final K key;
+    volatile Object value;
+    final AtomicMarkableReference<Node<K, V>>[] next;
+
+    @SuppressWarnings("unchecked")
+    Node(K key, V value, int level) {
+      this.key = key;
+      this.value = value;
+      next = (AtomicMarkableReference<Node<K, V>>[]) new AtomicMarkableReference[level];
+      for (int i = 0; i < level; i++) {
+        next[i] = new AtomicMarkableReference<>(null, false);
+      }
+    }
+
+    boolean casValue(Object expected, Object newValue) {
+      return VALUE_UPDATER.compareAndSet(this, expected, newValue);
+    }
+  }
+
+  private class Entry implements Map.Entry<K, V> {
+
+    private final K key;
+    private V value;
+
+    Entry(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      this.value = value;
+      return put(key, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return Objects.equals(e.getKey(), key) && Objects.equals(e.getValue(), value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(key) ^ Objects.hashCode(value);
+    }
+  }
+
+  private class Iterator implements java.util.Iterator<Map.Entry<K, V>> {
+
+    private Node<K, V> nextNode;
+    // value is read once, so it is not lost if node is removed after hasNext()
+    private V nextValue;
+    private Entry currentEntry;
+
+    Iterator(Node<K, V> first) {
+      advance(first);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextNode != null;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (nextNode == null) {
+        throw new NoSuchElementException("There is no such element!");
+      }
+      currentEntry = new Entry(nextNode.key, nextValue);
+      advance(nextNode.next[0].getReference());
+      return currentEntry;
+    }
+
+    @Override
+    public void remove() {
+      if (currentEntry == null) {
+        throw new IllegalStateException(
+            "There is no elements for removing, counter before fist element!");
+      }
+      ConcurrentSkipListMap.this.remove(currentEntry.getKey());
+      currentEntry = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance(Node<K, V> node) {
+      while (node != null) {
+        Object value = node.value;
+        if (value != null) {
+          nextValue = (V) value;
+          break;
+        }
+        node = node.next[0].getReference();
+      }
+      nextNode = node;
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    public java.util.Iterator<Map.Entry<K, V>> iterator() {
+      return ConcurrentSkipListMap.this.iterator();
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<K, V> e = (Map.Entry<K, V>) o;
+      V value = get(e.getKey());
+      return value != null && value.equals(e.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+      Map.Entry<K, V> entry = (Map.Entry<K, V>) o;
+      return ConcurrentSkipListMap.this.remove(entry.getKey()) != null;
+    }
+
+    public int size() {
+      return ConcurrentSkipListMap.this.size();
+    }
+  }
+}
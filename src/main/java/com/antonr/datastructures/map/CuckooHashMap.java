@@ -0,0 +1,445 @@
+package com.antonr.datastructures.map;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+// Bucketized cuckoo hashing: every key can be only in one of its two buckets
+// (4 slots each) or in a tiny stash, so get checks at most 8 slots + stash.
+// When both buckets are full, put evicts a random entry to its other bucket,
+// the evicted one may evict another one and so on (bounded count of kicks).
+// Keys with equal hash codes share both buckets, resize can't separate them,
+// so the ones which don't fit there stay in the stash, and it grows.
+public class CuckooHashMap<K, V> implements Map<K, V> {
+
+  private static final int SLOTS_PER_BUCKET = 4;
+  private static final int DEFAULT_BUCKET_COUNT = 4;
+  private static final float MAX_LOAD_FACTOR = 0.95f;
+  private static final int MAX_KICKS = 500;
+  private static final int STASH_SIZE = 4;
+  // below this load a full stash means colliding hashes, not a crowded table
+  private static final float MIN_LOAD_FACTOR_TO_RESIZE = 0.5f;
+  // marks null key, because null in keys array means empty slot
+  private static final Object NULL_KEY = new Object();
+  private Object[] keys;
+  private Object[] values;
+  private int[] hashes;
+  private int bucketMask;
+  private Object[] stashKeys = new Object[STASH_SIZE];
+  private Object[] stashValues = new Object[STASH_SIZE];
+  private int[] stashHashes = new int[STASH_SIZE];
+  private int stashSize;
+  private int size;
+  // state of xorshift generator for choosing evicted slots
+  private int random = 0x2545F491;
+
+  public CuckooHashMap() {
+    this(DEFAULT_BUCKET_COUNT * SLOTS_PER_BUCKET);
+  }
+
+  public CuckooHashMap(int initialCapacity) {
+    if (initialCapacity < 1) {
+      throw new IllegalArgumentException("Initial capacity should be at least 1");
+    }
+    int bucketCount = 2;
+    while (bucketCount * SLOTS_PER_BUCKET < initialCapacity) {
+      bucketCount *= 2;
+    }
+    allocate(bucketCount);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(K key, V value) {
+    Object maskedKey = maskNull(key);
+    int hash = hash(maskedKey);
+    int index = indexOf(maskedKey, hash);
+    if (index >= 0) {
+      V oldValue = (V) values[index];
+      values[index] = value;
+      return oldValue;
+    }
+    if (index < -1) {
+      int stashIndex = -index - 2;
+      V oldValue = (V) stashValues[stashIndex];
+      stashValues[stashIndex] = value;
+      return oldValue;
+    }
+    if (size + 1 > keys.length * MAX_LOAD_FACTOR) {
+      resize();
+    }
+    insert(maskedKey, value, hash);
+    size++;
+    return null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(K key) {
+    Object maskedKey = maskNull(key);
+    int index = indexOf(maskedKey, hash(maskedKey));
+    if (index >= 0) {
+      return (V) values[index];
+    }
+    return index == -1 ? null : (V) stashValues[-index - 2];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(K key) {
+    Object maskedKey = maskNull(key);
+    int index = indexOf(maskedKey, hash(maskedKey));
+    if (index == -1) {
+      return null;
+    }
+    V oldValue;
+    if (index >= 0) {
+      oldValue = (V) values[index];
+      clearSlot(index);
+      // freed slot may be a home for an entry from the stash
+      moveStashToTable();
+    } else {
+      oldValue = (V) stashValues[-index - 2];
+      removeFromStash(-index - 2);
+    }
+    size--;
+    return oldValue;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    Object maskedKey = maskNull(key);
+    return indexOf(maskedKey, hash(maskedKey)) != -1;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  // count of slots in the table without stash
+  public int capacity() {
+    return keys.length;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new EntrySet();
+  }
+
+  @Override
+  public java.util.Iterator<Map.Entry<K, V>> iterator() {
+    return new Iterator();
+  }
+
+  // index of the slot, -1 if there is no such key
+  // or (-(index in the stash) - 2)
+  private int indexOf(Object maskedKey, int hash) {
+    int first = firstBucket(hash);
+    int index = indexInBucket(first, maskedKey, hash);
+    if (index >= 0) {
+      return index;
+    }
+    index = indexInBucket(secondBucket(hash, first), maskedKey, hash);
+    if (index >= 0) {
+      return index;
+    }
+    for (int i = 0; i < stashSize; i++) {
+      if (stashHashes[i] == hash && stashKeys[i].equals(maskedKey)) {
+        return -i - 2;
+      }
+    }
+    return -1;
+  }
+
+  private int indexInBucket(int bucket, Object maskedKey, int hash) {
+    int start = bucket * SLOTS_PER_BUCKET;
+    for (int i = start; i < start + SLOTS_PER_BUCKET; i++) {
+      if (hashes[i] == hash && keys[i] != null && keys[i].equals(maskedKey)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void insert(Object maskedKey, Object value, int hash) {
+    boolean resized = false;
+    while (true) {
+      int bucket = firstBucket(hash);
+      if (placeInBucket(bucket, maskedKey, value, hash)
+          || placeInBucket(secondBucket(hash, bucket), maskedKey, value, hash)) {
+        return;
+      }
+      for (int kick = 0; kick < MAX_KICKS; kick++) {
+        int slot = bucket * SLOTS_PER_BUCKET + nextRandom() % SLOTS_PER_BUCKET;
+        Object evictedKey = keys[slot];
+        Object evictedValue = values[slot];
+        int evictedHash = hashes[slot];
+        keys[slot] = maskedKey;
+        values[slot] = value;
+        hashes[slot] = hash;
+        maskedKey = evictedKey;
+        value = evictedValue;
+        hash = evictedHash;
+        // evicted entry goes to its other bucket
+        int first = firstBucket(hash);
+        bucket = bucket == first ? secondBucket(hash, first) : first;
+        if (placeInBucket(bucket, maskedKey, value, hash)) {
+          return;
+        }
+      }
+      // table is too crowded, the last evicted entry is inserted after resize,
+      // one resize is enough for that, after it the load is below the minimum
+      if (stashSize == stashKeys.length && !resized
+          && size >= keys.length * MIN_LOAD_FACTOR_TO_RESIZE) {
+        resize();
+        resized = true;
+        continue;
+      }
+      addToStash(maskedKey, value, hash);
+      return;
+    }
+  }
+
+  private void addToStash(Object maskedKey, Object value, int hash) {
+    if (stashSize == stashKeys.length) {
+      stashKeys = Arrays.copyOf(stashKeys, stashSize * 2);
+      stashValues = Arrays.copyOf(stashValues, stashSize * 2);
+      stashHashes = Arrays.copyOf(stashHashes, stashSize * 2);
+    }
+    stashKeys[stashSize] = maskedKey;
+    stashValues[stashSize] = value;
+    stashHashes[stashSize] = hash;
+    stashSize++;
+  }
+
+  private boolean placeInBucket(int bucket, Object maskedKey, Object value, int hash) {
+    int start = bucket * SLOTS_PER_BUCKET;
+    for (int i = start; i < start + SLOTS_PER_BUCKET; i++) {
+      if (keys[i] == null) {
+        keys[i] = maskedKey;
+        values[i] = value;
+        hashes[i] = hash;
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void clearSlot(int index) {
+    keys[index] = null;
+    values[index] = null;
+    hashes[index] = 0;
+  }
+
+  private void removeFromStash(int index) {
+    stashSize--;
+    stashKeys[index] = stashKeys[stashSize];
+    stashValues[index] = stashValues[stashSize];
+    stashHashes[index] = stashHashes[stashSize];
+    stashKeys[stashSize] = null;
+    stashValues[stashSize] = null;
+  }
+
+  private void moveStashToTable() {
+    for (int i = stashSize - 1; i >= 0; i--) {
+      int first = firstBucket(stashHashes[i]);
+      if (placeInBucket(first, stashKeys[i], stashValues[i], stashHashes[i])
+          || placeInBucket(secondBucket(stashHashes[i], first), stashKeys[i], stashValues[i],
+          stashHashes[i])) {
+        removeFromStash(i);
+      }
+    }
+  }
+
+  private void resize() {
+    Object[] oldKeys = keys;
+    Object[] oldValues = values;
+    int[] oldHashes = hashes;
+    allocate(oldKeys.length / SLOTS_PER_BUCKET * 2);
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        insert(oldKeys[i], oldValues[i], oldHashes[i]);
+      }
+    }
+    moveStashToTable();
+  }
+
+  private void allocate(int bucketCount) {
+    keys = new Object[bucketCount * SLOTS_PER_BUCKET];
+    values = new Object[keys.length];
+    hashes = new int[keys.length];
+    bucketMask = bucketCount - 1;
+  }
+
+  private int firstBucket(int hash) {
+    return hash & bucketMask;
+  }
+
+  // second bucket is always different from the first one
+  private int secondBucket(int hash, int firstBucket) {
+    int bucket = mix(hash ^ 0x5bd1e995) & bucketMask;
+    return bucket == firstBucket ? firstBucket ^ 1 : bucket;
+  }
+
+  private int nextRandom() {
+    random ^= random << 13;
+    random ^= random >>> 17;
+    random ^= random << 5;
+    return random & Integer.MAX_VALUE;
+  }
+
+  private static Object maskNull(Object key) {
+    return key == null ? NULL_KEY : key;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K> K unmaskNull(Object key) {
+    return key == NULL_KEY ? null : (K) key;
+  }
+
+  private static int hash(Object maskedKey) {
+    return mix(maskedKey == NULL_KEY ? 0 : maskedKey.hashCode());
+  }
+
+  // finalizer of MurmurHash3
+  private static int mix(int hash) {
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+
+  private class Entry implements Map.Entry<K, V> {
+
+    private final K key;
+    private V value;
+
+    Entry(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    // entries move between slots, so the value is put by key
+    @Override
+    public V setValue(V value) {
+      this.value = value;
+      return put(key, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return Objects.equals(e.getKey(), key) && Objects.equals(e.getValue(), value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(key) ^ Objects.hashCode(value);
+    }
+  }
+
+  // goes through the table slots, then through the stash
+  private class Iterator implements java.util.Iterator<Map.Entry<K, V>> {
+
+    private int nextIndex = -1;
+    private int currentIndex = -1;
+
+    Iterator() {
+      findNext();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextIndex < keys.length + stashSize;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map.Entry<K, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException("There is no such element!");
+      }
+      currentIndex = nextIndex;
+      findNext();
+      if (currentIndex < keys.length) {
+        return new Entry(unmaskNull(keys[currentIndex]), (V) values[currentIndex]);
+      }
+      int stashIndex = currentIndex - keys.length;
+      return new Entry(unmaskNull(stashKeys[stashIndex]), (V) stashValues[stashIndex]);
+    }
+
+    @Override
+    public void remove() {
+      if (currentIndex < 0) {
+        throw new IllegalStateException(
+            "There is no elements for removing, counter before fist element!");
+      }
+      // entries are not moved from the stash here, otherwise they could be skipped
+      if (currentIndex < keys.length) {
+        clearSlot(currentIndex);
+      } else {
+        removeFromStash(currentIndex - keys.length);
+        // the last stash entry is moved to the removed position
+        nextIndex = currentIndex;
+      }
+      size--;
+      currentIndex = -1;
+    }
+
+    private void findNext() {
+      nextIndex++;
+      while (nextIndex < keys.length && keys[nextIndex] == null) {
+        nextIndex++;
+      }
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    public java.util.Iterator<Map.Entry<K, V>> iterator() {
+      return new Iterator();
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<K, V> e = (Map.Entry<K, V>) o;
+      return containsKey(e.getKey()) && Objects.equals(get(e.getKey()), e.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+      Map.Entry<K, V> entry = (Map.Entry<K, V>) o;
+      boolean contains = containsKey(entry.getKey());
+      CuckooHashMap.this.remove(entry.getKey());
+      return contains;
+    }
+
+    public int size() {
+      return size;
+    }
+  }
+}
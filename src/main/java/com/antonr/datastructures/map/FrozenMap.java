@@ -0,0 +1,385 @@
+package com.antonr.datastructures.map;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+// Read-only map built once with a minimal perfect hash function (hash and displace, CHD):
+// keys are split into small buckets and for every bucket a displacement is found
+// which sends all its keys to free slots. Lookup reads the displacement of the bucket
+// and checks exactly one slot, keys and values are kept in dense arrays without gaps.
+// Keys with equal hash codes can't be separated by any hash function,
+// all of them except one are kept in a small sorted overflow area.
+public final class FrozenMap<K, V> implements Map<K, V> {
+
+  // average count of keys in one bucket
+  private static final int BUCKET_SIZE = 4;
+  private static final int MAX_DISPLACEMENT = 1 << 10;
+  private final Object[] keys;
+  private final Object[] values;
+  private final long[] displacements;
+  private final int salt;
+  // keys which hash codes are already used by keys in the main table, sorted by hash code
+  private final int[] overflowHashes;
+  private final Object[] overflowKeys;
+  private final Object[] overflowValues;
+
+  private FrozenMap(Object[] keys, Object[] values, long[] displacements, int salt,
+      int[] overflowHashes, Object[] overflowKeys, Object[] overflowValues) {
+    this.keys = keys;
+    this.values = values;
+    this.displacements = displacements;
+    this.salt = salt;
+    this.overflowHashes = overflowHashes;
+    this.overflowKeys = overflowKeys;
+    this.overflowValues = overflowValues;
+  }
+
+  public static <K, V> FrozenMap<K, V> copyOf(Map<K, V> map) {
+    int count = 0;
+    Object[] sourceKeys = new Object[Math.max(map.size(), 1)];
+    Object[] sourceValues = new Object[sourceKeys.length];
+    for (Map.Entry<K, V> entry : map) {
+      if (count == sourceKeys.length) {
+        sourceKeys = Arrays.copyOf(sourceKeys, count * 2);
+        sourceValues = Arrays.copyOf(sourceValues, count * 2);
+      }
+      sourceKeys[count] = entry.getKey();
+      sourceValues[count] = entry.getValue();
+      count++;
+    }
+
+    // sorting by hash code puts keys with equal hash codes next to each other
+    long[] hashesWithIndexes = new long[count];
+    for (int i = 0; i < count; i++) {
+      hashesWithIndexes[i] = ((long) Objects.hashCode(sourceKeys[i]) << 32) | i;
+    }
+    Arrays.sort(hashesWithIndexes);
+    int[] primary = new int[count];
+    int primaryCount = 0;
+    int overflowCount = 0;
+    int[] overflowHashes = new int[count];
+    Object[] overflowKeys = new Object[count];
+    Object[] overflowValues = new Object[count];
+    for (int i = 0; i < count; i++) {
+      int hash = (int) (hashesWithIndexes[i] >> 32);
+      int index = (int) hashesWithIndexes[i];
+      if (i > 0 && hash == (int) (hashesWithIndexes[i - 1] >> 32)) {
+        overflowHashes[overflowCount] = hash;
+        overflowKeys[overflowCount] = sourceKeys[index];
+        overflowValues[overflowCount] = sourceValues[index];
+        overflowCount++;
+      } else {
+        primary[primaryCount++] = index;
+      }
+    }
+
+    for (int salt = 0; ; salt++) {
+      Object[] keys = new Object[primaryCount];
+      Object[] values = new Object[primaryCount];
+      long[] displacements = new long[Math.max(1, primaryCount / BUCKET_SIZE)];
+      if (build(sourceKeys, sourceValues, primary, primaryCount, salt,
+          keys, values, displacements)) {
+        return new FrozenMap<>(keys, values, displacements, salt,
+            Arrays.copyOf(overflowHashes, overflowCount),
+            Arrays.copyOf(overflowKeys, overflowCount),
+            Arrays.copyOf(overflowValues, overflowCount));
+      }
+    }
+  }
+
+  // returns false if some bucket can't be placed with this salt
+  private static boolean build(Object[] sourceKeys, Object[] sourceValues, int[] primary,
+      int primaryCount, int salt, Object[] keys, Object[] values, long[] displacements) {
+    int bucketCount = displacements.length;
+    // counting sort of keys by bucket
+    int[] bucketStarts = new int[bucketCount + 1];
+    int[] bucketOfKey = new int[primaryCount];
+    for (int i = 0; i < primaryCount; i++) {
+      int hash = Objects.hashCode(sourceKeys[primary[i]]);
+      bucketOfKey[i] = range(mix(hash, salt, 0), bucketCount);
+      bucketStarts[bucketOfKey[i] + 1]++;
+    }
+    int maxBucketSize = 0;
+    for (int bucket = 0; bucket < bucketCount; bucket++) {
+      maxBucketSize = Math.max(maxBucketSize, bucketStarts[bucket + 1]);
+      bucketStarts[bucket + 1] += bucketStarts[bucket];
+    }
+    int[] keysByBucket = new int[primaryCount];
+    int[] filled = Arrays.copyOf(bucketStarts, bucketCount);
+    for (int i = 0; i < primaryCount; i++) {
+      keysByBucket[filled[bucketOfKey[i]]++] = primary[i];
+    }
+
+    // the biggest buckets are placed first while the table is still empty
+    int[] bucketsBySize = new int[bucketCount];
+    int[] sizeStarts = new int[maxBucketSize + 2];
+    for (int bucket = 0; bucket < bucketCount; bucket++) {
+      sizeStarts[maxBucketSize - bucketSize(bucketStarts, bucket) + 1]++;
+    }
+    for (int i = 0; i <= maxBucketSize; i++) {
+      sizeStarts[i + 1] += sizeStarts[i];
+    }
+    for (int bucket = 0; bucket < bucketCount; bucket++) {
+      bucketsBySize[sizeStarts[maxBucketSize - bucketSize(bucketStarts, bucket)]++] = bucket;
+    }
+
+    boolean[] occupied = new boolean[primaryCount];
+    int[] first = new int[maxBucketSize];
+    int[] second = new int[maxBucketSize];
+    int[] slots = new int[maxBucketSize];
+    int nextFreeSlot = 0;
+    for (int bucket : bucketsBySize) {
+      int size = bucketSize(bucketStarts, bucket);
+      if (size == 0) {
+        break;
+      }
+      for (int i = 0; i < size; i++) {
+        int hash = Objects.hashCode(sourceKeys[keysByBucket[bucketStarts[bucket] + i]]);
+        first[i] = range(mix(hash, salt, 1), primaryCount);
+        second[i] = range(mix(hash, salt, 2), primaryCount);
+      }
+      long displacement;
+      if (size == 1) {
+        // single key can be sent to any free slot by the additive part
+        while (occupied[nextFreeSlot]) {
+          nextFreeSlot++;
+        }
+        slots[0] = nextFreeSlot;
+        displacement = Math.floorMod(nextFreeSlot - first[0], primaryCount);
+      } else {
+        displacement = findDisplacement(first, second, size, occupied, slots);
+        if (displacement < 0) {
+          return false;
+        }
+      }
+      displacements[bucket] = displacement;
+      for (int i = 0; i < size; i++) {
+        int index = keysByBucket[bucketStarts[bucket] + i];
+        occupied[slots[i]] = true;
+        keys[slots[i]] = sourceKeys[index];
+        values[slots[i]] = sourceValues[index];
+      }
+    }
+    return true;
+  }
+
+  // displacement (d0, d1) sends key to slot (first + d0 * second + d1) % length,
+  // fills slots for keys of the bucket and returns d0 << 32 | d1 or -1 if there is no such pair
+  private static long findDisplacement(int[] first, int[] second, int size,
+      boolean[] occupied, int[] slots) {
+    int length = occupied.length;
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < i; j++) {
+        if (first[i] == first[j] && second[i] == second[j]) {
+          // these keys always get the same slot
+          return -1;
+        }
+      }
+    }
+    for (int d0 = 0; d0 < MAX_DISPLACEMENT; d0++) {
+      search:
+      for (int d1 = 0; d1 < length; d1++) {
+        for (int i = 0; i < size; i++) {
+          int slot = slot(first[i], second[i], d0, d1, length);
+          if (occupied[slot]) {
+            continue search;
+          }
+          for (int j = 0; j < i; j++) {
+            if (slots[j] == slot) {
+              continue search;
+            }
+          }
+          slots[i] = slot;
+        }
+        return (long) d0 << 32 | d1;
+      }
+    }
+    return -1;
+  }
+
+  private static int slot(int first, int second, long d0, long d1, int length) {
+    return (int) ((first + d0 * second + d1) % length);
+  }
+
+  private static int bucketSize(int[] bucketStarts, int bucket) {
+    return bucketStarts[bucket + 1] - bucketStarts[bucket];
+  }
+
+  @Override
+  public V put(K key, V value) {
+    throw new UnsupportedOperationException("FrozenMap is read-only");
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(K key) {
+    int index = indexOf(key);
+    if (index >= 0) {
+      return (V) values[index];
+    }
+    return index == -1 ? null : (V) overflowValues[-index - 2];
+  }
+
+  @Override
+  public V remove(K key) {
+    throw new UnsupportedOperationException("FrozenMap is read-only");
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return indexOf(key) != -1;
+  }
+
+  @Override
+  public int size() {
+    return keys.length + overflowKeys.length;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new EntrySet();
+  }
+
+  @Override
+  public java.util.Iterator<Map.Entry<K, V>> iterator() {
+    return new Iterator();
+  }
+
+  // index in the main table, -1 if there is no such key
+  // or (-(index in the overflow area) - 2)
+  private int indexOf(K key) {
+    if (keys.length == 0) {
+      return -1;
+    }
+    int hash = Objects.hashCode(key);
+    long displacement = displacements[range(mix(hash, salt, 0), displacements.length)];
+    int slot = slot(range(mix(hash, salt, 1), keys.length), range(mix(hash, salt, 2), keys.length),
+        displacement >>> 32, displacement & 0xFFFFFFFFL, keys.length);
+    if (Objects.equals(keys[slot], key)) {
+      return slot;
+    }
+    if (overflowHashes.length == 0) {
+      return -1;
+    }
+    int index = Arrays.binarySearch(overflowHashes, hash);
+    if (index < 0) {
+      return -1;
+    }
+    while (index > 0 && overflowHashes[index - 1] == hash) {
+      index--;
+    }
+    for (; index < overflowHashes.length && overflowHashes[index] == hash; index++) {
+      if (Objects.equals(overflowKeys[index], key)) {
+        return -index - 2;
+      }
+    }
+    return -1;
+  }
+
+  // finalizer of MurmurHash3, function is the index of the hash function
+  private static int mix(int hash, int salt, int function) {
+    hash ^= salt * 0x85ebca6b + function * 0x9e3779b9;
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+
+  // maps hash to [0, length) without division
+  private static int range(int hash, int length) {
+    return (int) (((hash & 0xFFFFFFFFL) * length) >>> 32);
+  }
+
+  private class Entry implements Map.Entry<K, V> {
+
+    private final K key;
+    private final V value;
+
+    Entry(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      throw new UnsupportedOperationException("FrozenMap is read-only");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return Objects.equals(e.getKey(), key) && Objects.equals(e.getValue(), value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(key) ^ Objects.hashCode(value);
+    }
+  }
+
+  private class Iterator implements java.util.Iterator<Map.Entry<K, V>> {
+
+    // main table first, then the overflow area
+    private int index;
+
+    @Override
+    public boolean hasNext() {
+      return index < size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map.Entry<K, V> next() {
+      if (index >= size()) {
+        throw new NoSuchElementException("There is no such element!");
+      }
+      int current = index++;
+      if (current < keys.length) {
+        return new Entry((K) keys[current], (V) values[current]);
+      }
+      current -= keys.length;
+      return new Entry((K) overflowKeys[current], (V) overflowValues[current]);
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    public java.util.Iterator<Map.Entry<K, V>> iterator() {
+      return new Iterator();
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<K, V> e = (Map.Entry<K, V>) o;
+      return containsKey(e.getKey()) && Objects.equals(get(e.getKey()), e.getValue());
+    }
+
+    public int size() {
+      return FrozenMap.this.size();
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package com.antonr.datastructures.map;
 
+import com.antonr.datastructures.CapacityPolicy;
 import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
@@ -9,7 +11,10 @@ public class HashMap<K, V> implements Map<K, V> {
 
   private static final int DEFAULT_CAPACITY = 16;
   private static final float DEFAULT_LOAD_FACTOR = 0.75f;
-  private static final int GROWS_FACTOR = 2;
+  private static final CapacityPolicy DEFAULT_POLICY = CapacityPolicy.growOnly(2);
+  private final CapacityPolicy policy;
+  // count of buckets is never shrunk below it by the policy
+  private final int initialCapacity;
   private Entry<K, V>[] buckets;
   private int size = 0;
 
@@ -17,58 +22,82 @@ public class HashMap<K, V> implements Map<K, V> {
     this(DEFAULT_CAPACITY);
   }
 
-  @SuppressWarnings("unchecked")
   public HashMap(int initialCapacity) {
+    this(initialCapacity, DEFAULT_POLICY);
+  }
+
+  // capacity is the count of buckets, policy gets count of buckets needed for
+  // the entries with the load factor
+  @SuppressWarnings("unchecked")
+  public HashMap(int initialCapacity, CapacityPolicy policy) {
+    if (initialCapacity < 1) {
+      throw new IllegalArgumentException("Initial capacity should be at least 1");
+    }
     buckets = new Entry[initialCapacity];
+    this.policy = policy;
+    this.initialCapacity = initialCapacity;
   }
 
   @Override
   public V put(K key, V value) {
+    Entry<K, V> entry = findEntry(key);
+    // key is already in the map
+    if (entry != null) {
+      return entry.setValue(value);
+    }
     int bucketIndex = getBucketIndex(key, buckets.length);
-    Entry<K, V> oldEntry = buckets[bucketIndex];
-    Entry<K, V> newEntry = new Entry<>(key, value, null);
-    // current bucket is empty
-    if (oldEntry == null) {
-      buckets[bucketIndex] = newEntry;
-      size++;
-      if (size >= buckets.length * DEFAULT_LOAD_FACTOR) {
-        resize();
-      }
-      return null;
-    } else {
-      // bucket has one element
-      if (oldEntry.next == null) {
-        // keys which were put to map were the same
-        if (key.equals(oldEntry.getKey())) {
-          buckets[bucketIndex] = newEntry;
-        } else {
-          oldEntry.next = newEntry;
-          size++;
-        }
-        return oldEntry.getValue();
-        // current entry in chain of collisions
-      } else {
-        Entry<K, V> currentEntry = oldEntry;
-        while (currentEntry.next != null) {
-          if (key.equals(currentEntry.getKey())) {
-            return currentEntry.setValue(value);
-          }
-          currentEntry = currentEntry.next;
-        }
-        currentEntry.next = newEntry;
-        size++;
-        return currentEntry.getValue();
-      }
+    // new entry becomes the head of the chain
+    buckets[bucketIndex] = new Entry<>(key, value, buckets[bucketIndex]);
+    size++;
+    if (size >= buckets.length * DEFAULT_LOAD_FACTOR) {
+      resize(policy.grow(buckets.length, bucketsFor(size)));
+    }
+    return null;
+  }
+
+  public int capacity() {
+    return buckets.length;
+  }
+
+  // pre-sizes the map, so putting up to expectedSize entries doesn't resize it
+  public void ensureCapacity(int expectedSize) {
+    int required = bucketsFor(expectedSize);
+    if (required > buckets.length) {
+      resize(policy.grow(buckets.length, required));
+    }
+  }
+
+  // leaves only buckets needed for current entries
+  public void trimToSize() {
+    int required = bucketsFor(size);
+    if (required < buckets.length) {
+      resize(required);
     }
   }
 
+  // count of buckets which keeps the load below the load factor
+  private static int bucketsFor(int size) {
+    return (int) Math.min(Integer.MAX_VALUE - 8, (long) (size / DEFAULT_LOAD_FACTOR) + 1);
+  }
+
+  private void shrinkIfNeeded() {
+    int newCapacity = policy.shrink(buckets.length, bucketsFor(size), initialCapacity);
+    if (newCapacity < buckets.length) {
+      resize(newCapacity);
+    }
+  }
+
+  // every entry is moved separately, keys of one chain can go to different buckets
   @SuppressWarnings("unchecked")
-  private void resize() {
-    Entry<K, V>[] newArr = new Entry[buckets.length * GROWS_FACTOR];
+  private void resize(int newCapacity) {
+    Entry<K, V>[] newArr = new Entry[newCapacity];
     for (Entry<K, V> entry : buckets) {
-      if (entry != null) {
+      while (entry != null) {
+        Entry<K, V> next = entry.next;
         int newBucketIndex = getBucketIndex(entry.getKey(), newArr.length);
+        entry.next = newArr[newBucketIndex];
         newArr[newBucketIndex] = entry;
+        entry = next;
       }
     }
     buckets = newArr;
@@ -84,52 +113,53 @@ public class HashMap<K, V> implements Map<K, V> {
 
   @Override
   public V get(K key) {
-    int bucketIndex = getBucketIndex(key, buckets.length);
-    Entry<K, V> entry = buckets[bucketIndex];
-    if (entry.next == null) {
-      return entry.getValue();
-    }
-    Entry<K, V> currentEntry = entry;
-    while (!currentEntry.getKey().equals(key)) {
-      currentEntry = currentEntry.next;
-    }
-    return currentEntry.getValue();
+    Entry<K, V> entry = findEntry(key);
+    return entry == null ? null : entry.getValue();
   }
 
   @Override
   public V remove(K key) {
+    Entry<K, V> removedEntry = unlink(key);
+    if (removedEntry == null) {
+      return null;
+    }
+    shrinkIfNeeded();
+    return removedEntry.getValue();
+  }
+
+  // removes the entry without shrinking, so iterators stay valid
+  private Entry<K, V> unlink(K key) {
     int bucketIndex = getBucketIndex(key, buckets.length);
-    Entry<K, V> oldEntry = buckets[bucketIndex];
-    if (oldEntry.next == null) {
-      buckets[bucketIndex] = null;
+    Entry<K, V> previousEntry = null;
+    Entry<K, V> currentEntry = buckets[bucketIndex];
+    while (currentEntry != null && !Objects.equals(key, currentEntry.getKey())) {
+      previousEntry = currentEntry;
+      currentEntry = currentEntry.next;
+    }
+    if (currentEntry == null) {
+      return null;
+    }
+    if (previousEntry == null) {
+      buckets[bucketIndex] = currentEntry.next;
     } else {
-      Entry<K, V> currentEntry = oldEntry;
-      while (!currentEntry.next.getKey().equals(key)) {
-        currentEntry = currentEntry.next;
-      }
-      if (currentEntry.next.next != null) {
-        currentEntry.next = currentEntry.next.next;
-      } else {
-        currentEntry.next = null;
-      }
+      previousEntry.next = currentEntry.next;
     }
     size--;
-    return oldEntry.getValue();
+    return currentEntry;
   }
 
   @Override
   public boolean containsKey(K key) {
-    int hash = getBucketIndex(key, buckets.length);
-    Entry<K, V> entry = buckets[hash];
-    if (entry != null && entry.next != null) {
-      while (entry != null) {
-        if (key.equals(entry.getKey())) {
-          return true;
-        }
-        entry = entry.next;
-      }
+    return findEntry(key) != null;
+  }
+
+  // null if there is no such key
+  private Entry<K, V> findEntry(K key) {
+    Entry<K, V> entry = buckets[getBucketIndex(key, buckets.length)];
+    while (entry != null && !Objects.equals(key, entry.getKey())) {
+      entry = entry.next;
     }
-    return entry != null;
+    return entry;
   }
 
   @Override
@@ -200,16 +230,11 @@ public class HashMap<K, V> implements Map<K, V> {
     private Entry<K, V> currentEntry;
     // field for easy check if next element exist
     private Entry<K, V> nextEntry;
-    private int bucketIndex;
+    // bucket of the next entry
+    private int bucketIndex = -1;
 
     public Iterator() {
-      while (bucketIndex < buckets.length) {
-        if (buckets[bucketIndex] != null) {
-          nextEntry = buckets[bucketIndex];
-          break;
-        }
-        bucketIndex++;
-      }
+      findNextBucket();
     }
 
     public boolean hasNext() {
@@ -217,44 +242,34 @@ public class HashMap<K, V> implements Map<K, V> {
     }
 
     public Entry<K, V> next() {
-      currentEntry = nextEntry;
-      bucketIndex++;
-      if (currentEntry == null) {
+      if (nextEntry == null) {
         throw new NoSuchElementException("There is no such element!");
       }
-      while (bucketIndex < buckets.length) {
-        if (nextEntry != null && nextEntry.next != null) {
-          nextEntry = nextEntry.next;
-          return currentEntry;
-        }
-        nextEntry = buckets[bucketIndex++];
-        if (nextEntry != null) {
-          return currentEntry;
-        }
+      currentEntry = nextEntry;
+      nextEntry = nextEntry.next;
+      if (nextEntry == null) {
+        findNextBucket();
       }
       return currentEntry;
     }
 
     public void remove() {
-      Entry<K, V> removingEntry = currentEntry;
       if (currentEntry == null) {
         throw new IllegalStateException(
             "There is no elements for removing, counter before fist element!");
       }
-      if (removingEntry.next == null) {
-        buckets[bucketIndex] = null;
-      } else {
-        Entry<K, V> currentEntry = removingEntry;
-        while (!currentEntry.next.getKey().equals(removingEntry.getKey())) {
-          currentEntry = currentEntry.next;
-        }
-        if (currentEntry.next.next != null) {
-          currentEntry.next = currentEntry.next.next;
-        } else {
-          currentEntry.next = null;
+      // next entry is already found, so unlinking the current one doesn't affect iteration
+      unlink(currentEntry.getKey());
+      currentEntry = null;
+    }
+
+    private void findNextBucket() {
+      while (++bucketIndex < buckets.length) {
+        if (buckets[bucketIndex] != null) {
+          nextEntry = buckets[bucketIndex];
+          return;
         }
       }
-      size--;
     }
   }
 
@@ -285,7 +300,9 @@ public class HashMap<K, V> implements Map<K, V> {
     }
 
     public void clear() {
-      buckets = null;
+      Arrays.fill(buckets, null);
+      size = 0;
+      shrinkIfNeeded();
     }
   }
 }
@@ -0,0 +1,221 @@
+package com.antonr.datastructures.map;
+
+import java.util.AbstractSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+// Thread safe HashMap for read-mostly data. get and containsKey read under an optimistic
+// stamp of StampedLock without locking and are repeated under the read lock only if
+// a write happened meanwhile, writes take the write lock.
+// Iterator goes through a snapshot taken under the read lock, setValue and remove
+// of the iterator are applied to the map by key.
+public class OptimisticHashMap<K, V> implements Map<K, V> {
+
+  private final Map<K, V> delegate;
+  private final StampedLock lock = new StampedLock();
+
+  public OptimisticHashMap() {
+    delegate = new HashMap<>();
+  }
+
+  public OptimisticHashMap(int initialCapacity) {
+    delegate = new HashMap<>(initialCapacity);
+  }
+
+  @Override
+  public V put(K key, V value) {
+    long stamp = lock.writeLock();
+    try {
+      return delegate.put(key, value);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  // the read sequence is written out in every read method, a lambda for it
+  // would be allocated on every call
+  @Override
+  public V get(K key) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        V value = delegate.get(key);
+        if (lock.validate(stamp)) {
+          return value;
+        }
+      } catch (RuntimeException e) {
+        // exception of a valid read is a real one,
+        // otherwise the reader saw the map in the middle of a write
+        if (lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return delegate.get(key);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public V remove(K key) {
+    long stamp = lock.writeLock();
+    try {
+      return delegate.remove(key);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        boolean contains = delegate.containsKey(key);
+        if (lock.validate(stamp)) {
+          return contains;
+        }
+      } catch (RuntimeException e) {
+        if (lock.validate(stamp)) {
+          throw e;
+        }
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return delegate.containsKey(key);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public int size() {
+    long stamp = lock.tryOptimisticRead();
+    int size = delegate.size();
+    if (lock.validate(stamp)) {
+      return size;
+    }
+    stamp = lock.readLock();
+    try {
+      return delegate.size();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new EntrySet();
+  }
+
+  @Override
+  public java.util.Iterator<Map.Entry<K, V>> iterator() {
+    return new Iterator();
+  }
+
+  private class Entry implements Map.Entry<K, V> {
+
+    private final K key;
+    private V value;
+
+    Entry(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      this.value = value;
+      return put(key, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return Objects.equals(e.getKey(), key) && Objects.equals(e.getValue(), value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(key) ^ Objects.hashCode(value);
+    }
+  }
+
+  private class Iterator implements java.util.Iterator<Map.Entry<K, V>> {
+
+    private final Object[] snapshot;
+    private int nextIndex;
+    private Entry currentEntry;
+
+    Iterator() {
+      long stamp = lock.readLock();
+      try {
+        snapshot = new Object[delegate.size()];
+        int i = 0;
+        for (Map.Entry<K, V> entry : delegate) {
+          snapshot[i++] = new Entry(entry.getKey(), entry.getValue());
+        }
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextIndex < snapshot.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map.Entry<K, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException("There is no such element!");
+      }
+      currentEntry = (Entry) snapshot[nextIndex++];
+      return currentEntry;
+    }
+
+    @Override
+    public void remove() {
+      if (currentEntry == null) {
+        throw new IllegalStateException(
+            "There is no elements for removing, counter before fist element!");
+      }
+      OptimisticHashMap.this.remove(currentEntry.getKey());
+      currentEntry = null;
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    public java.util.Iterator<Map.Entry<K, V>> iterator() {
+      return new Iterator();
+    }
+
+    public int size() {
+      return OptimisticHashMap.this.size();
+    }
+  }
+}
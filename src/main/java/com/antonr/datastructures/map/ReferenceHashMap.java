@@ -0,0 +1,417 @@
+package com.antonr.datastructures.map;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.AbstractSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+// HashMap for caches which holds keys and/or values by weak or soft references,
+// so GC can take the memory back under pressure. Weak key goes away as soon as
+// nobody else uses it, soft value stays while there is enough memory.
+// Entry with a cleared key or value is treated as absent. GC puts cleared references
+// to a queue, every write removes at most PURGE_BATCH of their entries from buckets,
+// so there is no sweep of the whole table. Until then such entries are still counted
+// by size, purge() removes all of them at once.
+// Keys are compared by equals, null keys and values are not allowed.
+public class ReferenceHashMap<K, V> implements Map<K, V> {
+
+  public enum Strength {
+    STRONG, WEAK, SOFT
+  }
+
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final float DEFAULT_LOAD_FACTOR = 0.75f;
+  private static final int PURGE_BATCH = 16;
+  private final Strength keyStrength;
+  private final Strength valueStrength;
+  private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+  private Entry<K, V>[] buckets;
+  private int size = 0;
+
+  // weak keys and strong values, as java.util.WeakHashMap
+  public ReferenceHashMap() {
+    this(Strength.WEAK, Strength.STRONG);
+  }
+
+  public ReferenceHashMap(Strength keyStrength, Strength valueStrength) {
+    this(keyStrength, valueStrength, DEFAULT_CAPACITY);
+  }
+
+  @SuppressWarnings("unchecked")
+  public ReferenceHashMap(Strength keyStrength, Strength valueStrength, int initialCapacity) {
+    if (initialCapacity < 1) {
+      throw new IllegalArgumentException("Initial capacity should be at least 1");
+    }
+    this.keyStrength = Objects.requireNonNull(keyStrength, "Key strength is null");
+    this.valueStrength = Objects.requireNonNull(valueStrength, "Value strength is null");
+    buckets = new Entry[initialCapacity];
+  }
+
+  @Override
+  public V put(K key, V value) {
+    Objects.requireNonNull(key, "Null keys are not allowed");
+    Objects.requireNonNull(value, "Null values are not allowed");
+    purge(PURGE_BATCH);
+    int hash = key.hashCode();
+    Entry<K, V> entry = findEntry(key, hash);
+    if (entry != null) {
+      V oldValue = entry.getValue();
+      clear(entry.value);
+      entry.value = reference(value, valueStrength, entry);
+      return oldValue;
+    }
+    int bucketIndex = getBucketIndex(hash, buckets.length);
+    Entry<K, V> newEntry = new Entry<>(hash, buckets[bucketIndex]);
+    newEntry.key = reference(key, keyStrength, newEntry);
+    newEntry.value = reference(value, valueStrength, newEntry);
+    buckets[bucketIndex] = newEntry;
+    size++;
+    if (size >= buckets.length * DEFAULT_LOAD_FACTOR) {
+      resize(buckets.length * 2);
+    }
+    return null;
+  }
+
+  @Override
+  public V get(K key) {
+    if (key == null) {
+      return null;
+    }
+    Entry<K, V> entry = findEntry(key, key.hashCode());
+    return entry == null ? null : entry.getValue();
+  }
+
+  @Override
+  public V remove(K key) {
+    if (key == null) {
+      return null;
+    }
+    purge(PURGE_BATCH);
+    Entry<K, V> entry = findEntry(key, key.hashCode());
+    if (entry == null) {
+      return null;
+    }
+    // value is read before unlinking, GC can't clear it while it is on the stack
+    V value = entry.getValue();
+    unlink(entry);
+    clear(entry.key);
+    clear(entry.value);
+    return value;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return get(key) != null;
+  }
+
+  // count of entries including the cleared ones which are not purged yet
+  @Override
+  public int size() {
+    return size;
+  }
+
+  // removes entries of all references cleared by GC so far, the work is proportional
+  // to the count of such references, not to the size of the map
+  public void purge() {
+    purge(Integer.MAX_VALUE);
+  }
+
+  public Strength getKeyStrength() {
+    return keyStrength;
+  }
+
+  public Strength getValueStrength() {
+    return valueStrength;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new EntrySet();
+  }
+
+  @Override
+  public java.util.Iterator<Map.Entry<K, V>> iterator() {
+    return new Iterator();
+  }
+
+  private void purge(int maxReferences) {
+    Reference<?> reference;
+    for (int i = 0; i < maxReferences && (reference = queue.poll()) != null; i++) {
+      Entry<?, ?> entry = ((EntryReference) reference).getEntry();
+      // replaced value doesn't make the entry stale, and the entry can be already
+      // removed: by the other reference, remove or resize, then unlink does nothing
+      if (entry.key == reference || entry.value == reference) {
+        unlink(entry);
+      }
+    }
+  }
+
+  // live entry with the key, null if there is no such key or it was cleared
+  private Entry<K, V> findEntry(K key, int hash) {
+    Entry<K, V> entry = buckets[getBucketIndex(hash, buckets.length)];
+    while (entry != null) {
+      if (entry.hash == hash && key.equals(entry.getKey())) {
+        return entry.getValue() == null ? null : entry;
+      }
+      entry = entry.next;
+    }
+    return null;
+  }
+
+  // removes exactly this entry, nothing happens if it isn't in the map
+  private void unlink(Entry<?, ?> removedEntry) {
+    int bucketIndex = getBucketIndex(removedEntry.hash, buckets.length);
+    Entry<K, V> previousEntry = null;
+    Entry<K, V> currentEntry = buckets[bucketIndex];
+    while (currentEntry != null && currentEntry != removedEntry) {
+      previousEntry = currentEntry;
+      currentEntry = currentEntry.next;
+    }
+    if (currentEntry == null) {
+      return;
+    }
+    if (previousEntry == null) {
+      buckets[bucketIndex] = currentEntry.next;
+    } else {
+      previousEntry.next = currentEntry.next;
+    }
+    size--;
+  }
+
+  // cleared entries are not moved to the new buckets
+  @SuppressWarnings("unchecked")
+  private void resize(int newCapacity) {
+    Entry<K, V>[] newArr = new Entry[newCapacity];
+    for (Entry<K, V> entry : buckets) {
+      while (entry != null) {
+        Entry<K, V> next = entry.next;
+        if (entry.isCleared()) {
+          size--;
+        } else {
+          int newBucketIndex = getBucketIndex(entry.hash, newArr.length);
+          entry.next = newArr[newBucketIndex];
+          newArr[newBucketIndex] = entry;
+        }
+        entry = next;
+      }
+    }
+    buckets = newArr;
+  }
+
+  private static int getBucketIndex(int hash, int bucketsLength) {
+    // ensure that the result is non negative
+    return (hash & Integer.MAX_VALUE) % bucketsLength;
+  }
+
+  private <T> Object reference(T referent, Strength strength, Entry<K, V> entry) {
+    switch (strength) {
+      case WEAK:
+        return new WeakEntryReference<>(referent, queue, entry);
+      case SOFT:
+        return new SoftEntryReference<>(referent, queue, entry);
+      default:
+        return referent;
+    }
+  }
+
+  // referent of a reference or the object itself for strong keys and values
+  private static Object dereference(Object object) {
+    return object instanceof EntryReference ? ((Reference<?>) object).get() : object;
+  }
+
+  // reference of a removed or replaced object is not needed anymore,
+  // GC doesn't put cleared references to the queue
+  private static void clear(Object object) {
+    if (object instanceof EntryReference) {
+      ((Reference<?>) object).clear();
+    }
+  }
+
+  private interface EntryReference {
+
+    Entry<?, ?> getEntry();
+  }
+
+  private static final class WeakEntryReference<T> extends WeakReference<T>
+      implements EntryReference {
+
+    private final Entry<?, ?> entry;
+
+    WeakEntryReference(T referent, ReferenceQueue<Object> queue, Entry<?, ?> entry) {
+      super(referent, queue);
+      this.entry = entry;
+    }
+
+    @Override
+    public Entry<?, ?> getEntry() {
+      return entry;
+    }
+  }
+
+  private static final class SoftEntryReference<T> extends SoftReference<T>
+      implements EntryReference {
+
+    private final Entry<?, ?> entry;
+
+    SoftEntryReference(T referent, ReferenceQueue<Object> queue, Entry<?, ?> entry) {
+      super(referent, queue);
+      this.entry = entry;
+    }
+
+    @Override
+    public Entry<?, ?> getEntry() {
+      return entry;
+    }
+  }
+
+  // key and value are the objects themselves or references to them,
+  // entry is cleared if any of them was collected
+  private static class Entry<K, V> {
+
+    private final int hash;
+    private Object key;
+    private Object value;
+    private Entry<K, V> next;
+
+    Entry(int hash, Entry<K, V> next) {
+      this.hash = hash;
+      this.next = next;
+    }
+
+    @SuppressWarnings("unchecked")
+    K getKey() {
+      return (K) dereference(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    V getValue() {
+      return (V) dereference(value);
+    }
+
+    boolean isCleared() {
+      return getKey() == null || getValue() == null;
+    }
+  }
+
+  // entry returned by the iterator holds the key and the value strongly,
+  // so they are not cleared while it is used
+  private class SnapshotEntry implements Map.Entry<K, V> {
+
+    private final K key;
+    private V value;
+
+    SnapshotEntry(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      this.value = value;
+      return put(key, value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return Objects.equals(e.getKey(), key) && Objects.equals(e.getValue(), value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(key) ^ Objects.hashCode(value);
+    }
+  }
+
+  // skips cleared entries, the next live entry is found in advance and its
+  // key and value are held, so hasNext can't change its answer because of GC
+  private class Iterator implements java.util.Iterator<Map.Entry<K, V>> {
+
+    private Entry<K, V> nextEntry;
+    private SnapshotEntry next;
+    private SnapshotEntry current;
+    private int bucketIndex = -1;
+
+    Iterator() {
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException("There is no such element!");
+      }
+      current = next;
+      advance();
+      return current;
+    }
+
+    // removing doesn't purge, so the entries found in advance stay in the buckets
+    @Override
+    public void remove() {
+      if (current == null) {
+        throw new IllegalStateException(
+            "There is no elements for removing, counter before fist element!");
+      }
+      Entry<K, V> entry = findEntry(current.getKey(), current.getKey().hashCode());
+      if (entry != null) {
+        unlink(entry);
+      }
+      current = null;
+    }
+
+    private void advance() {
+      next = null;
+      while (next == null) {
+        nextEntry = nextEntry == null ? null : nextEntry.next;
+        while (nextEntry == null) {
+          if (++bucketIndex >= buckets.length) {
+            return;
+          }
+          nextEntry = buckets[bucketIndex];
+        }
+        K key = nextEntry.getKey();
+        V value = nextEntry.getValue();
+        if (key != null && value != null) {
+          next = new SnapshotEntry(key, value);
+        }
+      }
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    public java.util.Iterator<Map.Entry<K, V>> iterator() {
+      return new Iterator();
+    }
+
+    public int size() {
+      return size;
+    }
+  }
+}
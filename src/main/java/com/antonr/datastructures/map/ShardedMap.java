@@ -0,0 +1,365 @@
+package com.antonr.datastructures.map;
+
+import com.antonr.datastructures.list.ArrayList;
+import com.antonr.datastructures.list.List;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+
+// Map split by key hash into independent HashMap shards. Single operations go to
+// one shard, bulk operations run one fork-join task per shard (putAll - per chunk
+// of the source), so they use all cores. The map itself is not thread safe: bulk
+// operations must not run concurrently with other modifications, functions passed
+// to them are called from several threads at once.
+public class ShardedMap<K, V> implements Map<K, V> {
+
+  private static final float LOAD_FACTOR = 0.75f;
+  // sizes of shards are binomially distributed around the average, shards are
+  // pre-sized for this count of standard deviations above it
+  private static final int SIZE_DEVIATIONS = 5;
+  // putAll doesn't split the source into smaller chunks
+  private static final int MIN_CHUNK_SIZE = 1 << 12;
+  // entries of one shard which putAll collects before taking the lock of the shard
+  private static final int BATCH_SIZE = 256;
+  private final HashMap<K, V>[] shards;
+
+  public ShardedMap() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  public ShardedMap(int shardCount) {
+    this(shardCount, 0);
+  }
+
+  // every shard is created big enough for its part of expected size with a margin
+  // for the random spread of keys, so loading of the estimated count of entries
+  // doesn't resize shards
+  @SuppressWarnings("unchecked")
+  public ShardedMap(int shardCount, long expectedSize) {
+    if (shardCount < 1) {
+      throw new IllegalArgumentException("Shard count should be at least 1");
+    }
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("Expected size should not be negative");
+    }
+    int shardCapacity = shardCapacityFor(expectedSize, shardCount);
+    shards = new HashMap[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      shards[i] = new HashMap<>(Math.max(16, shardCapacity));
+    }
+  }
+
+  @Override
+  public V put(K key, V value) {
+    return shardFor(key).put(key, value);
+  }
+
+  @Override
+  public V get(K key) {
+    return shardFor(key).get(key);
+  }
+
+  @Override
+  public V remove(K key) {
+    return shardFor(key).remove(key);
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    return shardFor(key).containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (HashMap<K, V> shard : shards) {
+      size += shard.size();
+    }
+    return size;
+  }
+
+  public int shardCount() {
+    return shards.length;
+  }
+
+  // The source is split into chunks by its spliterator, every chunk is routed to shards
+  // by its own task, so hashing runs on all cores and the source is not copied.
+  // A task collects small batches of entries per shard and puts a full batch under
+  // the lock of its shard. If the source has equal keys, any of their values can win.
+  // Sized sources pre-size shards, so they aren't resized during the load.
+  public void putAll(Iterable<? extends Map.Entry<? extends K, ? extends V>> entries) {
+    Spliterator<? extends Map.Entry<? extends K, ? extends V>> spliterator =
+        entries.spliterator();
+    long chunkSize = MIN_CHUNK_SIZE;
+    if (spliterator.hasCharacteristics(Spliterator.SIZED)) {
+      long estimate = spliterator.estimateSize();
+      long perShard = shardSizeFor(estimate, shards.length);
+      runForEachShard(shardIndex -> {
+        HashMap<K, V> shard = shards[shardIndex];
+        shard.ensureCapacity((int) Math.min(Integer.MAX_VALUE - 8, shard.size() + perShard));
+      });
+      // a few chunks per thread balance the load
+      int parallelism = ForkJoinPool.getCommonPoolParallelism();
+      chunkSize = Math.max(MIN_CHUNK_SIZE, estimate / (parallelism * 4L));
+    }
+    new PutAllTask(spliterator, chunkSize).invoke();
+  }
+
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    runForEachShard(shardIndex -> {
+      for (Map.Entry<K, V> entry : shards[shardIndex]) {
+        action.accept(entry.getKey(), entry.getValue());
+      }
+    });
+  }
+
+  public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+    runForEachShard(shardIndex -> {
+      for (Map.Entry<K, V> entry : shards[shardIndex]) {
+        entry.setValue(function.apply(entry.getKey(), entry.getValue()));
+      }
+    });
+  }
+
+  // combines transformed entries with reducer, null results of transformer are skipped,
+  // returns null if there is nothing to combine
+  public <U> U reduce(BiFunction<? super K, ? super V, ? extends U> transformer,
+      BinaryOperator<U> reducer) {
+    List<RecursiveTask<U>> tasks = new ArrayList<>(shards.length);
+    for (HashMap<K, V> shard : shards) {
+      tasks.add(new RecursiveTask<U>() {
+        @Override
+        protected U compute() {
+          U result = null;
+          for (Map.Entry<K, V> entry : shard) {
+            U transformed = transformer.apply(entry.getKey(), entry.getValue());
+            if (transformed != null) {
+              result = result == null ? transformed : reducer.apply(result, transformed);
+            }
+          }
+          return result;
+        }
+      });
+    }
+    invokeAll(tasks);
+    U result = null;
+    for (int i = 0; i < tasks.size(); i++) {
+      U shardResult = tasks.get(i).join();
+      if (shardResult != null) {
+        result = result == null ? shardResult : reducer.apply(result, shardResult);
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new EntrySet();
+  }
+
+  @Override
+  public java.util.Iterator<Map.Entry<K, V>> iterator() {
+    return new Iterator();
+  }
+
+  // count of buckets of the shard
+  int shardCapacity(int shardIndex) {
+    return shards[shardIndex].capacity();
+  }
+
+  private static int shardCapacityFor(long expectedSize, int shardCount) {
+    long perShard = shardSizeFor(expectedSize, shardCount);
+    return (int) Math.min(Integer.MAX_VALUE - 8, (long) (perShard / LOAD_FACTOR) + 1);
+  }
+
+  // entries of the biggest shard for the expected size, the variance of the binomial
+  // distribution is below its mean, so sqrt of the mean bounds the deviation
+  private static long shardSizeFor(long expectedSize, int shardCount) {
+    double perShard = (double) expectedSize / shardCount;
+    return (long) Math.ceil(perShard + SIZE_DEVIATIONS * Math.sqrt(perShard));
+  }
+
+  private HashMap<K, V> shardFor(K key) {
+    return shards[shardIndex(key)];
+  }
+
+  // shards use low bits of the hash code for buckets, so the shard is chosen
+  // by the high bits of the mixed hash
+  private int shardIndex(Object key) {
+    int hash = key == null ? 0 : key.hashCode();
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return (int) (((hash & 0xFFFFFFFFL) * shards.length) >>> 32);
+  }
+
+  private void runForEachShard(ShardTask task) {
+    List<RecursiveAction> actions = new ArrayList<>(shards.length);
+    for (int i = 0; i < shards.length; i++) {
+      int shardIndex = i;
+      actions.add(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          task.run(shardIndex);
+        }
+      });
+    }
+    invokeAll(actions);
+  }
+
+  // forks all tasks but the first one, which runs in the calling thread.
+  // Returns only after all tasks are finished, even if some of them failed,
+  // so no shard is changed in background after the exception is rethrown
+  private static void invokeAll(List<? extends ForkJoinTask<?>> tasks) {
+    for (int i = 1; i < tasks.size(); i++) {
+      tasks.get(i).fork();
+    }
+    tasks.get(0).quietlyInvoke();
+    for (int i = 1; i < tasks.size(); i++) {
+      tasks.get(i).quietlyJoin();
+    }
+    // join of a finished task rethrows its exception, the first one wins
+    for (int i = 0; i < tasks.size(); i++) {
+      tasks.get(i).join();
+    }
+  }
+
+  // routes one chunk of the source of putAll, forks tasks for the rest of chunks
+  private class PutAllTask extends RecursiveAction {
+
+    private final Spliterator<? extends Map.Entry<? extends K, ? extends V>> spliterator;
+    private final long chunkSize;
+    // keys and values by turns, waiting for the lock of their shard
+    private Object[][] batches;
+    private int[] batchSizes;
+
+    PutAllTask(Spliterator<? extends Map.Entry<? extends K, ? extends V>> spliterator,
+        long chunkSize) {
+      this.spliterator = spliterator;
+      this.chunkSize = chunkSize;
+    }
+
+    @Override
+    protected void compute() {
+      List<PutAllTask> forked = new ArrayList<>();
+      try {
+        Spliterator<? extends Map.Entry<? extends K, ? extends V>> chunk;
+        while (spliterator.estimateSize() > chunkSize
+            && (chunk = spliterator.trySplit()) != null) {
+          PutAllTask task = new PutAllTask(chunk, chunkSize);
+          task.fork();
+          forked.add(task);
+        }
+        batches = new Object[shards.length][];
+        batchSizes = new int[shards.length];
+        spliterator.forEachRemaining(this::add);
+        for (int i = 0; i < shards.length; i++) {
+          flush(i);
+        }
+      } finally {
+        // forked tasks are finished even if this one failed
+        for (int i = 0; i < forked.size(); i++) {
+          forked.get(i).quietlyJoin();
+        }
+      }
+      for (int i = 0; i < forked.size(); i++) {
+        forked.get(i).join();
+      }
+    }
+
+    private void add(Map.Entry<? extends K, ? extends V> entry) {
+      int shardIndex = shardIndex(entry.getKey());
+      Object[] batch = batches[shardIndex];
+      if (batch == null) {
+        batch = batches[shardIndex] = new Object[BATCH_SIZE * 2];
+      }
+      int size = batchSizes[shardIndex];
+      batch[size] = entry.getKey();
+      batch[size + 1] = entry.getValue();
+      batchSizes[shardIndex] = size + 2;
+      if (size + 2 == batch.length) {
+        flush(shardIndex);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void flush(int shardIndex) {
+      int size = batchSizes[shardIndex];
+      if (size == 0) {
+        return;
+      }
+      Object[] batch = batches[shardIndex];
+      HashMap<K, V> shard = shards[shardIndex];
+      synchronized (shard) {
+        for (int i = 0; i < size; i += 2) {
+          shard.put((K) batch[i], (V) batch[i + 1]);
+        }
+      }
+      Arrays.fill(batch, 0, size, null);
+      batchSizes[shardIndex] = 0;
+    }
+  }
+
+  private interface ShardTask {
+
+    void run(int shardIndex);
+  }
+
+  // goes through shards one by one
+  private class Iterator implements java.util.Iterator<Map.Entry<K, V>> {
+
+    private int shardIndex;
+    private java.util.Iterator<Map.Entry<K, V>> shardIterator = shards[0].iterator();
+    // iterator which returned the last entry
+    private java.util.Iterator<Map.Entry<K, V>> lastIterator;
+
+    @Override
+    public boolean hasNext() {
+      while (!shardIterator.hasNext() && shardIndex < shards.length - 1) {
+        shardIterator = shards[++shardIndex].iterator();
+      }
+      return shardIterator.hasNext();
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException("There is no such element!");
+      }
+      lastIterator = shardIterator;
+      return shardIterator.next();
+    }
+
+    @Override
+    public void remove() {
+      if (lastIterator == null) {
+        throw new IllegalStateException(
+            "There is no elements for removing, counter before fist element!");
+      }
+      lastIterator.remove();
+      lastIterator = null;
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    public java.util.Iterator<Map.Entry<K, V>> iterator() {
+      return new Iterator();
+    }
+
+    public int size() {
+      return ShardedMap.this.size();
+    }
+  }
+}
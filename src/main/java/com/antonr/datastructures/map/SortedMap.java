@@ -0,0 +1,32 @@
+package com.antonr.datastructures.map;
+
+import java.util.Comparator;
+
+// Map which keeps its keys in ascending order
+public interface SortedMap<K, V> extends Map<K, V> {
+
+  // null means natural ordering of keys
+  Comparator<? super K> comparator();
+
+  // throw NoSuchElementException if map is empty
+  K firstKey();
+
+  K lastKey();
+
+  // [1, 3, 5] floorKey(4) -> 3, floorKey(3) -> 3
+  // null if there is no such key
+  K floorKey(K key);
+
+  // [1, 3, 5] ceilingKey(4) -> 5, ceilingKey(5) -> 5
+  K ceilingKey(K key);
+
+  // [1, 3, 5] lowerKey(3) -> 1
+  K lowerKey(K key);
+
+  // [1, 3, 5] higherKey(3) -> 5
+  K higherKey(K key);
+
+  // live view of the map with keys in [fromKey, toKey)
+  // putting a key out of this range throws IllegalArgumentException
+  SortedMap<K, V> subMap(K fromKey, K toKey);
+}
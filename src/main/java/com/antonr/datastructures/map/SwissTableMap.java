@@ -0,0 +1,371 @@
+package com.antonr.datastructures.map;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+// Open addressing in the style of Swiss tables: every slot has one control byte
+// (EMPTY, DELETED or 7 bits of the hash for a full slot). Slots are probed by groups
+// of 8, control bytes of a group are kept in one long and compared at once (SWAR),
+// so equals is called only for slots which hash bits match.
+public class SwissTableMap<K, V> implements Map<K, V> {
+
+  private static final int GROUP_SIZE = 8;
+  private static final int DEFAULT_GROUP_COUNT = 2;
+  private static final long EMPTY = 0x80L;
+  private static final long DELETED = 0xFEL;
+  private static final long EMPTY_GROUP = 0x8080808080808080L;
+  private static final long LOWEST_BITS = 0x0101010101010101L;
+  private static final long HIGHEST_BITS = 0x8080808080808080L;
+  // marks null key, so keys array doesn't need separate checks
+  private static final Object NULL_KEY = new Object();
+  private long[] control;
+  private Object[] keys;
+  private Object[] values;
+  private int groupMask;
+  private int size;
+  // count of EMPTY slots which can be filled before rehash, max load factor is 7/8
+  private int growthLeft;
+
+  public SwissTableMap() {
+    allocate(DEFAULT_GROUP_COUNT);
+  }
+
+  public SwissTableMap(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException("Expected size should not be negative");
+    }
+    int groupCount = 1;
+    while (groupCount * (GROUP_SIZE - 1) < expectedSize) {
+      groupCount *= 2;
+    }
+    allocate(groupCount);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(K key, V value) {
+    Object maskedKey = maskNull(key);
+    int hash = hash(maskedKey);
+    int slot = find(maskedKey, hash);
+    if (slot >= 0) {
+      V oldValue = (V) values[slot];
+      values[slot] = value;
+      return oldValue;
+    }
+    slot = findInsertSlot(hash);
+    if (growthLeft == 0 && controlByte(slot) == EMPTY) {
+      rehash();
+      slot = findInsertSlot(hash);
+    }
+    if (controlByte(slot) == EMPTY) {
+      growthLeft--;
+    }
+    setControl(slot, hash & 0x7F);
+    keys[slot] = maskedKey;
+    values[slot] = value;
+    size++;
+    return null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(K key) {
+    Object maskedKey = maskNull(key);
+    int slot = find(maskedKey, hash(maskedKey));
+    return slot >= 0 ? (V) values[slot] : null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(K key) {
+    Object maskedKey = maskNull(key);
+    int slot = find(maskedKey, hash(maskedKey));
+    if (slot < 0) {
+      return null;
+    }
+    V oldValue = (V) values[slot];
+    removeAt(slot);
+    return oldValue;
+  }
+
+  @Override
+  public boolean containsKey(K key) {
+    Object maskedKey = maskNull(key);
+    return find(maskedKey, hash(maskedKey)) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  public int capacity() {
+    return keys.length;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet() {
+    return new EntrySet();
+  }
+
+  @Override
+  public java.util.Iterator<Map.Entry<K, V>> iterator() {
+    return new Iterator();
+  }
+
+  // returns slot of the key or -1
+  private int find(Object maskedKey, int hash) {
+    int group = (hash >>> 7) & groupMask;
+    for (int step = 1; ; step++) {
+      long word = control[group];
+      long matches = matchByte(word, hash & 0x7F);
+      while (matches != 0) {
+        int slot = group * GROUP_SIZE + (Long.numberOfTrailingZeros(matches) >>> 3);
+        if (maskedKey.equals(keys[slot])) {
+          return slot;
+        }
+        matches &= matches - 1;
+      }
+      // key would be inserted into this empty slot, so it can't be further
+      if (matchEmpty(word) != 0) {
+        return -1;
+      }
+      // triangular probing visits every group when the count is a power of two
+      group = (group + step) & groupMask;
+    }
+  }
+
+  // first EMPTY or DELETED slot in the probe sequence
+  private int findInsertSlot(int hash) {
+    int group = (hash >>> 7) & groupMask;
+    for (int step = 1; ; step++) {
+      long free = matchEmptyOrDeleted(control[group]);
+      if (free != 0) {
+        return group * GROUP_SIZE + (Long.numberOfTrailingZeros(free) >>> 3);
+      }
+      group = (group + step) & groupMask;
+    }
+  }
+
+  private void removeAt(int slot) {
+    // if the group has an empty slot, no probe sequence goes through it,
+    // so the slot can be empty too, otherwise the tombstone keeps sequences unbroken
+    if (matchEmpty(control[slot / GROUP_SIZE]) != 0) {
+      setControl(slot, EMPTY);
+      growthLeft++;
+    } else {
+      setControl(slot, DELETED);
+    }
+    keys[slot] = null;
+    values[slot] = null;
+    size--;
+  }
+
+  // grows the table or only removes tombstones if there are a lot of them
+  private void rehash() {
+    long[] oldControl = control;
+    Object[] oldKeys = keys;
+    Object[] oldValues = values;
+    int groupCount = control.length;
+    allocate(size * 2 <= capacity() * 7 / 8 ? groupCount : groupCount * 2);
+    for (int slot = 0; slot < oldKeys.length; slot++) {
+      if (isFull(controlByte(oldControl, slot))) {
+        int hash = hash(oldKeys[slot]);
+        int newSlot = findInsertSlot(hash);
+        setControl(newSlot, hash & 0x7F);
+        keys[newSlot] = oldKeys[slot];
+        values[newSlot] = oldValues[slot];
+        growthLeft--;
+      }
+    }
+  }
+
+  private void allocate(int groupCount) {
+    control = new long[groupCount];
+    Arrays.fill(control, EMPTY_GROUP);
+    keys = new Object[groupCount * GROUP_SIZE];
+    values = new Object[keys.length];
+    groupMask = groupCount - 1;
+    growthLeft = keys.length * 7 / 8;
+  }
+
+  private long controlByte(int slot) {
+    return controlByte(control, slot);
+  }
+
+  private static long controlByte(long[] control, int slot) {
+    return (control[slot / GROUP_SIZE] >>> ((slot % GROUP_SIZE) * 8)) & 0xFF;
+  }
+
+  private void setControl(int slot, long value) {
+    int shift = (slot % GROUP_SIZE) * 8;
+    int group = slot / GROUP_SIZE;
+    control[group] = (control[group] & ~(0xFFL << shift)) | (value << shift);
+  }
+
+  private static boolean isFull(long controlByte) {
+    return controlByte < EMPTY;
+  }
+
+  // highest bit is set in every byte equal to value, false positives are possible
+  // in a byte above a matching one, they are filtered out by equals
+  private static long matchByte(long word, long value) {
+    long x = word ^ (LOWEST_BITS * value);
+    return (x - LOWEST_BITS) & ~x & HIGHEST_BITS;
+  }
+
+  // EMPTY is the only control byte with the highest bit set and the second bit clear
+  private static long matchEmpty(long word) {
+    return word & (~word << 6) & HIGHEST_BITS;
+  }
+
+  // EMPTY and DELETED are the only ones with the highest bit set and the lowest bit clear
+  private static long matchEmptyOrDeleted(long word) {
+    return word & (~word << 7) & HIGHEST_BITS;
+  }
+
+  private static Object maskNull(Object key) {
+    return key == null ? NULL_KEY : key;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <K> K unmaskNull(Object key) {
+    return key == NULL_KEY ? null : (K) key;
+  }
+
+  private static int hash(Object maskedKey) {
+    int hash = maskedKey == NULL_KEY ? 0 : maskedKey.hashCode();
+    // finalizer of MurmurHash3, both parts of the hash need well mixed bits
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+
+  private class Entry implements Map.Entry<K, V> {
+
+    private final int slot;
+
+    Entry(int slot) {
+      this.slot = slot;
+    }
+
+    @Override
+    public K getKey() {
+      return unmaskNull(keys[slot]);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getValue() {
+      return (V) values[slot];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V setValue(V value) {
+      V oldValue = (V) values[slot];
+      values[slot] = value;
+      return oldValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+      return Objects.equals(e.getKey(), getKey()) && Objects.equals(e.getValue(), getValue());
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+    }
+  }
+
+  private class Iterator implements java.util.Iterator<Map.Entry<K, V>> {
+
+    private int nextSlot = -1;
+    private int currentSlot = -1;
+
+    Iterator() {
+      findNext();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return nextSlot < keys.length;
+    }
+
+    @Override
+    public Map.Entry<K, V> next() {
+      if (nextSlot >= keys.length) {
+        throw new NoSuchElementException("There is no such element!");
+      }
+      currentSlot = nextSlot;
+      findNext();
+      return new Entry(currentSlot);
+    }
+
+    @Override
+    public void remove() {
+      if (currentSlot < 0) {
+        throw new IllegalStateException(
+            "There is no elements for removing, counter before fist element!");
+      }
+      removeAt(currentSlot);
+      currentSlot = -1;
+    }
+
+    private void findNext() {
+      nextSlot++;
+      while (nextSlot < keys.length) {
+        // full slots of the rest of the group
+        long full = ~control[nextSlot / GROUP_SIZE] & HIGHEST_BITS
+            & (HIGHEST_BITS << ((nextSlot % GROUP_SIZE) * 8));
+        if (full != 0) {
+          nextSlot = (nextSlot & -GROUP_SIZE) + (Long.numberOfTrailingZeros(full) >>> 3);
+          return;
+        }
+        nextSlot = (nextSlot & -GROUP_SIZE) + GROUP_SIZE;
+      }
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+
+    public java.util.Iterator<Map.Entry<K, V>> iterator() {
+      return new Iterator();
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      if (!(o instanceof Map.Entry)) {
+        return false;
+      }
+      Map.Entry<K, V> e = (Map.Entry<K, V>) o;
+      return containsKey(e.getKey()) && Objects.equals(get(e.getKey()), e.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object o) {
+      Map.Entry<K, V> entry = (Map.Entry<K, V>) o;
+      boolean contains = containsKey(entry.getKey());
+      SwissTableMap.this.remove(entry.getKey());
+      return contains;
+    }
+
+    public int size() {
+      return size;
+    }
+  }
+}
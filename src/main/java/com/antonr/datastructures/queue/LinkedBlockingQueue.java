@@ -0,0 +1,237 @@
+package com.antonr.datastructures.queue;
+
+import com.antonr.datastructures.list.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Bounded blocking queue on linked nodes guarded by one lock. Consumers can take
+// a batch of values with drainTo, which pays for the lock once per batch instead
+// of once per value. Nodes of removed values are kept in a small pool and reused
+// by producers, it is safe here because nodes are touched only under the lock.
+public class LinkedBlockingQueue<T> implements Queue<T> {
+
+  private static final int MAX_POOLED_NODES = 256;
+  private final int capacity;
+  private final int maxPooledNodes;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition notEmpty = lock.newCondition();
+  private final Condition notFull = lock.newCondition();
+  // dummy node, the first value is in head.next
+  private Node<T> head = new Node<>();
+  private Node<T> tail = head;
+  // free nodes linked by next
+  private Node<T> pool;
+  private int poolSize;
+  private int size;
+
+  public LinkedBlockingQueue() {
+    this(Integer.MAX_VALUE);
+  }
+
+  public LinkedBlockingQueue(int capacity) {
+    this(capacity, MAX_POOLED_NODES);
+  }
+
+  // 0 pooled nodes turns the reuse off, benchmarks compare both ways
+  LinkedBlockingQueue(int capacity, int maxPooledNodes) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity should be at least 1");
+    }
+    this.capacity = capacity;
+    this.maxPooledNodes = maxPooledNodes;
+  }
+
+  @Override
+  public boolean offer(T value) {
+    Objects.requireNonNull(value, "Null values are not allowed");
+    lock.lock();
+    try {
+      if (size == capacity) {
+        return false;
+      }
+      enqueue(value);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // false if there is no space after timeout
+  public boolean offer(T value, long timeout, TimeUnit unit) throws InterruptedException {
+    Objects.requireNonNull(value, "Null values are not allowed");
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (size == capacity) {
+        if (nanos <= 0) {
+          return false;
+        }
+        nanos = notFull.awaitNanos(nanos);
+      }
+      enqueue(value);
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // waits until there is space in the queue
+  public void put(T value) throws InterruptedException {
+    Objects.requireNonNull(value, "Null values are not allowed");
+    lock.lockInterruptibly();
+    try {
+      while (size == capacity) {
+        notFull.await();
+      }
+      enqueue(value);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public T poll() {
+    lock.lock();
+    try {
+      return size == 0 ? null : dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // null if the queue is still empty after timeout
+  public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+    long nanos = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (size == 0) {
+        if (nanos <= 0) {
+          return null;
+        }
+        nanos = notEmpty.awaitNanos(nanos);
+      }
+      return dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // waits until there is a value in the queue
+  public T take() throws InterruptedException {
+    lock.lockInterruptibly();
+    try {
+      while (size == 0) {
+        notEmpty.await();
+      }
+      return dequeue();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // moves at most max values to the end of batch without waiting,
+  // returns count of moved values
+  public int drainTo(List<? super T> batch, int max) {
+    if (max <= 0) {
+      return 0;
+    }
+    lock.lock();
+    try {
+      int count = Math.min(max, size);
+      for (int i = 0; i < count; i++) {
+        batch.add(removeFirst());
+        size--;
+      }
+      if (count == 1) {
+        notFull.signal();
+      } else if (count > 1) {
+        notFull.signalAll();
+      }
+      return count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public T peek() {
+    lock.lock();
+    try {
+      return size == 0 ? null : head.next.element;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public int size() {
+    lock.lock();
+    try {
+      return size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  // space left before producers are blocked
+  public int remainingCapacity() {
+    lock.lock();
+    try {
+      return capacity - size;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void enqueue(T value) {
+    Node<T> node = pool;
+    if (node == null) {
+      node = new Node<>();
+    } else {
+      pool = node.next;
+      node.next = null;
+      poolSize--;
+    }
+    node.element = value;
+    tail.next = node;
+    tail = node;
+    size++;
+    notEmpty.signal();
+  }
+
+  private T dequeue() {
+    T value = removeFirst();
+    size--;
+    notFull.signal();
+    return value;
+  }
+
+  // old dummy node goes to the pool, the first node becomes the dummy one
+  private T removeFirst() {
+    Node<T> oldHead = head;
+    head = oldHead.next;
+    T value = head.element;
+    head.element = null;
+    if (poolSize < maxPooledNodes) {
+      oldHead.next = pool;
+      pool = oldHead;
+      poolSize++;
+    } else {
+      oldHead.next = null;
+    }
+    return value;
+  }
+
+  private static class Node<T> {
+
+    T element;
+    Node<T> next;
+  }
+}
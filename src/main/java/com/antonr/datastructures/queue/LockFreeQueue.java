@@ -0,0 +1,126 @@
+package com.antonr.datastructures.queue;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+// Unbounded lock-free queue of Michael & Scott for many producers and consumers.
+// head is a dummy node, the first value is in head.next. tail may lag one node
+// behind the real last node, any thread which sees it moves tail forward.
+// Nodes are never reused: a recycled node could get the same address back
+// under a pending CAS of another thread (ABA), garbage collector makes new nodes safe.
+public class LockFreeQueue<T> implements Queue<T> {
+
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<LockFreeQueue, Node> HEAD =
+      AtomicReferenceFieldUpdater.newUpdater(LockFreeQueue.class, Node.class, "head");
+  @SuppressWarnings("rawtypes")
+  private static final AtomicReferenceFieldUpdater<LockFreeQueue, Node> TAIL =
+      AtomicReferenceFieldUpdater.newUpdater(LockFreeQueue.class, Node.class, "tail");
+  private volatile Node<T> head;
+  private volatile Node<T> tail;
+
+  public LockFreeQueue() {
+    head = new Node<>(null);
+    tail = head;
+  }
+
+  @Override
+  public boolean offer(T value) {
+    Objects.requireNonNull(value, "Null values are not allowed");
+    Node<T> node = new Node<>(value);
+    while (true) {
+      Node<T> last = tail;
+      Node<T> next = last.next;
+      if (last != tail) {
+        continue;
+      }
+      if (next == null) {
+        if (last.casNext(null, node)) {
+          // failure is fine, somebody has already moved tail
+          TAIL.compareAndSet(this, last, node);
+          return true;
+        }
+      } else {
+        // help the producer which linked the node but hasn't moved tail yet
+        TAIL.compareAndSet(this, last, next);
+      }
+    }
+  }
+
+  @Override
+  public T poll() {
+    while (true) {
+      Node<T> first = head;
+      Node<T> last = tail;
+      Node<T> next = first.next;
+      if (first != head) {
+        continue;
+      }
+      if (next == null) {
+        return null;
+      }
+      if (first == last) {
+        // tail lags behind, move it before head can pass it
+        TAIL.compareAndSet(this, last, next);
+        continue;
+      }
+      // value must be read before CAS, after it another consumer may clear it
+      T value = next.element;
+      if (HEAD.compareAndSet(this, first, next)) {
+        // next becomes the dummy node, it must not keep the value
+        next.element = null;
+        return value;
+      }
+    }
+  }
+
+  @Override
+  public T peek() {
+    while (true) {
+      Node<T> first = head;
+      Node<T> next = first.next;
+      if (next == null) {
+        return null;
+      }
+      T value = next.element;
+      // null value means that the node was polled and became the dummy one
+      if (value != null && first == head) {
+        return value;
+      }
+    }
+  }
+
+  // counts nodes, so it is O(n) and only an estimate under concurrent modifications
+  @Override
+  public int size() {
+    int size = 0;
+    for (Node<T> node = head.next; node != null && size < Integer.MAX_VALUE; node = node.next) {
+      if (node.element != null) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return peek() == null;
+  }
+
+  private static class Node<T> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+        AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+    volatile T element;
+    volatile Node<T> next;
+
+    Node(T element) {
+      this.element = element;
+    }
+
+    boolean casNext(Node<T> expected, Node<T> node) {
+      return NEXT.compareAndSet(this, expected, node);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package com.antonr.datastructures.queue;
+
+// First In First Out, null values are not allowed
+// because null is returned when the queue is empty
+public interface Queue<T> {
+
+  // add value to the tail
+  // false if the queue is full
+  boolean offer(T value);
+
+  // remove value from the head
+  // null if the queue is empty
+  T poll();
+
+  // value from the head without removing
+  // null if the queue is empty
+  T peek();
+
+  int size();
+
+  boolean isEmpty();
+}
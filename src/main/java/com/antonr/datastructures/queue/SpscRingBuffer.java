@@ -0,0 +1,171 @@
+package com.antonr.datastructures.queue;
+
+import com.antonr.datastructures.list.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+// Bounded queue for exactly one producer thread and one consumer thread.
+// Values are kept in a pre-allocated array used as a ring, positions grow forever
+// and are mapped to slots by mask. Each side publishes its position with lazySet
+// (store-store barrier only) and keeps a cached copy of the other side's position,
+// so the shared counters are read only when the cached one says full or empty.
+// Counters are padded to separate cache lines, otherwise producer and consumer
+// would invalidate each other's line on every operation (false sharing).
+public class SpscRingBuffer<T> implements Queue<T> {
+
+  private final Object[] buffer;
+  private final int mask;
+  // written by the producer, cache is the consumer position seen by the producer
+  private final Sequence tail = new Sequence();
+  // written by the consumer, cache is the producer position seen by the consumer
+  private final Sequence head = new Sequence();
+
+  // capacity is rounded up to a power of two
+  public SpscRingBuffer(int capacity) {
+    if (capacity < 1 || capacity > 1 << 30) {
+      throw new IllegalArgumentException("Capacity should be in [1;2^30]");
+    }
+    int size = 1;
+    while (size < capacity) {
+      size *= 2;
+    }
+    buffer = new Object[size];
+    mask = size - 1;
+  }
+
+  // producer only
+  @Override
+  public boolean offer(T value) {
+    Objects.requireNonNull(value, "Null values are not allowed");
+    long position = tail.value;
+    if (position - tail.cache == buffer.length) {
+      tail.cache = head.value;
+      if (position - tail.cache == buffer.length) {
+        return false;
+      }
+    }
+    buffer[(int) position & mask] = value;
+    tail.lazySet(position + 1);
+    return true;
+  }
+
+  // producer only, publishes as many values from array as there is space for
+  // with one counter update, returns count of published values
+  public int offer(T[] values, int offset, int length) {
+    long position = tail.value;
+    int free = buffer.length - (int) (position - tail.cache);
+    if (free < length) {
+      tail.cache = head.value;
+      free = buffer.length - (int) (position - tail.cache);
+    }
+    int count = Math.min(free, length);
+    for (int i = 0; i < count; i++) {
+      buffer[(int) (position + i) & mask] =
+          Objects.requireNonNull(values[offset + i], "Null values are not allowed");
+    }
+    if (count > 0) {
+      tail.lazySet(position + count);
+    }
+    return count;
+  }
+
+  // consumer only
+  @Override
+  @SuppressWarnings("unchecked")
+  public T poll() {
+    long position = head.value;
+    if (position == head.cache) {
+      head.cache = tail.value;
+      if (position == head.cache) {
+        return null;
+      }
+    }
+    int slot = (int) position & mask;
+    T value = (T) buffer[slot];
+    buffer[slot] = null;
+    head.lazySet(position + 1);
+    return value;
+  }
+
+  // consumer only, moves at most max values to the end of batch with one counter update,
+  // returns count of moved values
+  @SuppressWarnings("unchecked")
+  public int drainTo(List<? super T> batch, int max) {
+    if (max <= 0) {
+      return 0;
+    }
+    long position = head.value;
+    int available = (int) (head.cache - position);
+    if (available < max) {
+      head.cache = tail.value;
+      available = (int) (head.cache - position);
+    }
+    int count = Math.min(available, max);
+    for (int i = 0; i < count; i++) {
+      int slot = (int) (position + i) & mask;
+      batch.add((T) buffer[slot]);
+      buffer[slot] = null;
+    }
+    if (count > 0) {
+      head.lazySet(position + count);
+    }
+    return count;
+  }
+
+  // consumer only
+  @Override
+  @SuppressWarnings("unchecked")
+  public T peek() {
+    long position = head.value;
+    if (position == head.cache) {
+      head.cache = tail.value;
+      if (position == head.cache) {
+        return null;
+      }
+    }
+    return (T) buffer[(int) position & mask];
+  }
+
+  // exact only when called by producer or consumer while the other one is idle
+  @Override
+  public int size() {
+    long consumed = head.value;
+    long produced = tail.value;
+    return (int) Math.max(0, Math.min(buffer.length, produced - consumed));
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  public int capacity() {
+    return buffer.length;
+  }
+
+  // 7 longs before and after the fields, so they are alone in a 64 byte cache line.
+  // Padding is split by classes because the JVM keeps fields of a superclass first,
+  // while fields of one class can be reordered.
+  private static class LeftPadding {
+
+    long p1, p2, p3, p4, p5, p6, p7;
+  }
+
+  private static class SequenceFields extends LeftPadding {
+
+    volatile long value;
+    // position of the opposite side, used only by the owner thread
+    long cache;
+  }
+
+  private static final class Sequence extends SequenceFields {
+
+    private static final AtomicLongFieldUpdater<SequenceFields> VALUE =
+        AtomicLongFieldUpdater.newUpdater(SequenceFields.class, "value");
+    long p9, p10, p11, p12, p13, p14, p15;
+
+    void lazySet(long newValue) {
+      VALUE.lazySet(this, newValue);
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.antonr.datastructures.list;
+
+// Java 17+ version of HashScan from the multi-release part of the jar.
+// Vector API is an incubator module, it is there only if the application is started
+// with --add-modules jdk.incubator.vector, otherwise the scalar loops are used.
+// VectorHashScan is loaded only when the module is there.
+final class HashScan {
+
+  private static final boolean VECTORIZED =
+      ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+  private HashScan() {
+  }
+
+  // index of the first hash in [fromIndex; toIndex), -1 if there is no such hash
+  static int indexOf(int[] hashes, int fromIndex, int toIndex, int hash) {
+    if (VECTORIZED) {
+      return VectorHashScan.indexOf(hashes, fromIndex, toIndex, hash);
+    }
+    for (int i = fromIndex; i < toIndex; i++) {
+      if (hashes[i] == hash) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  // index of the last hash in [fromIndex; toIndex), -1 if there is no such hash
+  static int lastIndexOf(int[] hashes, int fromIndex, int toIndex, int hash) {
+    if (VECTORIZED) {
+      return VectorHashScan.lastIndexOf(hashes, fromIndex, toIndex, hash);
+    }
+    for (int i = toIndex - 1; i >= fromIndex; i--) {
+      if (hashes[i] == hash) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  static boolean isVectorized() {
+    return VECTORIZED;
+  }
+}
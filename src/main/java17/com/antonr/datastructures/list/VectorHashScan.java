@@ -0,0 +1,55 @@
+package com.antonr.datastructures.list;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Compares as many hashes at once as the widest vector register of the CPU holds
+// (8 with AVX2, 16 with AVX-512), the mask of equal lanes gives the index.
+// The tail shorter than a vector is compared one by one.
+final class VectorHashScan {
+
+  private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+  private VectorHashScan() {
+  }
+
+  static int indexOf(int[] hashes, int fromIndex, int toIndex, int hash) {
+    int i = fromIndex;
+    int bound = fromIndex + SPECIES.loopBound(toIndex - fromIndex);
+    for (; i < bound; i += SPECIES.length()) {
+      VectorMask<Integer> matches =
+          IntVector.fromArray(SPECIES, hashes, i).compare(VectorOperators.EQ, hash);
+      if (matches.anyTrue()) {
+        return i + matches.firstTrue();
+      }
+    }
+    for (; i < toIndex; i++) {
+      if (hashes[i] == hash) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  // goes by vectors from the end, the tail is at the beginning of the range
+  static int lastIndexOf(int[] hashes, int fromIndex, int toIndex, int hash) {
+    int i = toIndex;
+    int bound = toIndex - SPECIES.loopBound(toIndex - fromIndex);
+    while (i > bound) {
+      i -= SPECIES.length();
+      VectorMask<Integer> matches =
+          IntVector.fromArray(SPECIES, hashes, i).compare(VectorOperators.EQ, hash);
+      if (matches.anyTrue()) {
+        return i + matches.lastTrue();
+      }
+    }
+    for (i--; i >= fromIndex; i--) {
+      if (hashes[i] == hash) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,50 @@
+package com.antonr.datastructures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class CapacityPolicyTest {
+
+  @Test
+  void growByFactor() {
+    CapacityPolicy policy = CapacityPolicy.growOnly(1.5);
+    assertEquals(15, policy.grow(10, 11));
+    // at least one element is added
+    assertEquals(2, policy.grow(1, 2));
+    // required capacity wins over the factor
+    assertEquals(100, policy.grow(10, 100));
+  }
+
+  @Test
+  void growthIsLimitedByMaxStep() {
+    CapacityPolicy policy = new CapacityPolicy(2, 1000, 0.25);
+    assertEquals(20, policy.grow(10, 11));
+    assertEquals(11000, policy.grow(10000, 10001));
+  }
+
+  @Test
+  void shrinkOnlyBelowThreshold() {
+    CapacityPolicy policy = new CapacityPolicy(2, Integer.MAX_VALUE, 0.25);
+    assertEquals(100, policy.shrink(100, 25, 10));
+    assertEquals(48, policy.shrink(100, 24, 10));
+    assertEquals(10, policy.shrink(100, 0, 10));
+    // already at minimal capacity
+    assertEquals(10, policy.shrink(10, 0, 10));
+  }
+
+  @Test
+  void growOnlyNeverShrinks() {
+    assertEquals(100, CapacityPolicy.growOnly(2).shrink(100, 0, 1));
+  }
+
+  @Test
+  void throwIllegalArgumentExceptionIfInappropriateParameters() {
+    assertThrows(IllegalArgumentException.class, () -> new CapacityPolicy(1, 10, 0));
+    assertThrows(IllegalArgumentException.class, () -> new CapacityPolicy(2, 0, 0));
+    // no hysteresis: the collection would shrink right after growth
+    assertThrows(IllegalArgumentException.class, () -> new CapacityPolicy(2, 10, 0.5));
+    assertThrows(IllegalArgumentException.class, () -> new CapacityPolicy(2, 10, -0.1));
+  }
+}
@@ -0,0 +1,241 @@
+package com.antonr.datastructures;
+
+import com.antonr.datastructures.list.ArrayList;
+import com.antonr.datastructures.list.List;
+import com.antonr.datastructures.list.OptimisticArrayList;
+import com.antonr.datastructures.map.HashMap;
+import com.antonr.datastructures.map.Map;
+import com.antonr.datastructures.map.OptimisticHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+// Contention benchmark of OptimisticHashMap and OptimisticArrayList against the same
+// structures behind a monitor and behind ReentrantReadWriteLock, for different shares
+// of writes and counts of threads. It is not a test, surefire doesn't run it:
+// mvn test-compile
+// java -cp target/classes:target/test-classes com.antonr.datastructures.OptimisticContentionBenchmark
+// Numbers are operations per microsecond of all threads together.
+public class OptimisticContentionBenchmark {
+
+  private static final int SIZE = 1 << 14;
+  private static final int[] WRITE_PERCENTS = {0, 1, 10, 50};
+  private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+  private static final long WARMUP_MILLIS = 200;
+  private static final long RUN_MILLIS = 500;
+  // results of reads are summed here, so JIT can't drop them
+  private static volatile long sink;
+
+  public static void main(String[] args) throws InterruptedException {
+    run("optimistic map", OptimisticContentionBenchmark::optimisticMap);
+    run("synchronized map", OptimisticContentionBenchmark::synchronizedMap);
+    run("read-write lock map", OptimisticContentionBenchmark::readWriteLockMap);
+    run("optimistic list", OptimisticContentionBenchmark::optimisticList);
+    run("synchronized list", OptimisticContentionBenchmark::synchronizedList);
+    run("read-write lock list", OptimisticContentionBenchmark::readWriteLockList);
+  }
+
+  private static void run(String name, Supplier<Target> targets) throws InterruptedException {
+    System.out.println(name);
+    StringBuilder header = new StringBuilder("  writes %");
+    for (int threads : THREAD_COUNTS) {
+      header.append(String.format("%12s", threads + " threads"));
+    }
+    System.out.println(header);
+    for (int writePercent : WRITE_PERCENTS) {
+      StringBuilder row = new StringBuilder(String.format("  %8d", writePercent));
+      for (int threads : THREAD_COUNTS) {
+        Target target = targets.get();
+        measure(target, threads, writePercent, WARMUP_MILLIS);
+        long operations = measure(target, threads, writePercent, RUN_MILLIS);
+        row.append(String.format("%12.1f", operations / (RUN_MILLIS * 1000.0)));
+      }
+      System.out.println(row);
+    }
+  }
+
+  // count of operations of all threads during the time
+  private static long measure(Target target, int threads, int writePercent, long millis)
+      throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    long[] operations = new long[threads];
+    AtomicBoolean stop = new AtomicBoolean();
+    Thread[] workers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      int worker = i;
+      workers[i] = new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long count = 0;
+        long sum = 0;
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        while (!stop.get()) {
+          // a batch between checks of the flag keeps its cost out of the result
+          for (int j = 0; j < 256; j++) {
+            int key = random.nextInt(SIZE);
+            if (random.nextInt(100) < writePercent) {
+              target.write(key);
+            } else {
+              sum += target.read(key);
+            }
+          }
+          count += 256;
+        }
+        operations[worker] = count;
+        sink += sum;
+      });
+      workers[i].start();
+    }
+    start.countDown();
+    Thread.sleep(millis);
+    stop.set(true);
+    long total = 0;
+    for (int i = 0; i < threads; i++) {
+      workers[i].join();
+      total += operations[i];
+    }
+    return total;
+  }
+
+  private static Target optimisticMap() {
+    OptimisticHashMap<Integer, Integer> map = new OptimisticHashMap<>(SIZE * 2);
+    fill(map);
+    return new Target() {
+      @Override
+      public int read(int key) {
+        return map.get(key);
+      }
+
+      @Override
+      public void write(int key) {
+        map.put(key, key);
+      }
+    };
+  }
+
+  private static Target synchronizedMap() {
+    HashMap<Integer, Integer> map = new HashMap<>(SIZE * 2);
+    fill(map);
+    return new Target() {
+      @Override
+      public synchronized int read(int key) {
+        return map.get(key);
+      }
+
+      @Override
+      public synchronized void write(int key) {
+        map.put(key, key);
+      }
+    };
+  }
+
+  private static Target readWriteLockMap() {
+    HashMap<Integer, Integer> map = new HashMap<>(SIZE * 2);
+    fill(map);
+    ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    return new Target() {
+      @Override
+      public int read(int key) {
+        lock.readLock().lock();
+        try {
+          return map.get(key);
+        } finally {
+          lock.readLock().unlock();
+        }
+      }
+
+      @Override
+      public void write(int key) {
+        lock.writeLock().lock();
+        try {
+          map.put(key, key);
+        } finally {
+          lock.writeLock().unlock();
+        }
+      }
+    };
+  }
+
+  private static Target optimisticList() {
+    OptimisticArrayList<Integer> list = new OptimisticArrayList<>(SIZE);
+    fill(list);
+    return new Target() {
+      @Override
+      public int read(int index) {
+        return list.get(index);
+      }
+
+      @Override
+      public void write(int index) {
+        list.set(index, index);
+      }
+    };
+  }
+
+  private static Target synchronizedList() {
+    ArrayList<Integer> list = new ArrayList<>(SIZE);
+    fill(list);
+    return new Target() {
+      @Override
+      public synchronized int read(int index) {
+        return list.get(index);
+      }
+
+      @Override
+      public synchronized void write(int index) {
+        list.set(index, index);
+      }
+    };
+  }
+
+  private static Target readWriteLockList() {
+    ArrayList<Integer> list = new ArrayList<>(SIZE);
+    fill(list);
+    ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    return new Target() {
+      @Override
+      public int read(int index) {
+        lock.readLock().lock();
+        try {
+          return list.get(index);
+        } finally {
+          lock.readLock().unlock();
+        }
+      }
+
+      @Override
+      public void write(int index) {
+        lock.writeLock().lock();
+        try {
+          list.set(index, index);
+        } finally {
+          lock.writeLock().unlock();
+        }
+      }
+    };
+  }
+
+  private static void fill(Map<Integer, Integer> map) {
+    for (int i = 0; i < SIZE; i++) {
+      map.put(i, i);
+    }
+  }
+
+  private static void fill(List<Integer> list) {
+    for (int i = 0; i < SIZE; i++) {
+      list.add(i);
+    }
+  }
+
+  private interface Target {
+
+    int read(int key);
+
+    void write(int key);
+  }
+}
@@ -0,0 +1,125 @@
+package com.antonr.datastructures.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class BlockedBloomFilterTest {
+
+  @Test
+  void noFalseNegatives() {
+    BlockedBloomFilter<Integer> filter = new BlockedBloomFilter<>(10000, 0.01);
+    for (int i = 0; i < 10000; i++) {
+      filter.add(i);
+    }
+    for (int i = 0; i < 10000; i++) {
+      assertTrue(filter.mightContain(i));
+    }
+  }
+
+  @Test
+  void falsePositiveRateIsCloseToConfigured() {
+    BlockedBloomFilter<String> filter = new BlockedBloomFilter<>(10000, 0.01);
+    for (int i = 0; i < 10000; i++) {
+      filter.add("key" + i);
+    }
+    int falsePositives = 0;
+    for (int i = 0; i < 100000; i++) {
+      if (filter.mightContain("missing" + i)) {
+        falsePositives++;
+      }
+    }
+    // size is corrected for the uneven load of blocks, so only random noise is allowed
+    assertTrue(falsePositives < 1200, "False positives: " + falsePositives);
+  }
+
+  @Test
+  void smallFalsePositiveRateIsKept() {
+    BlockedBloomFilter<Integer> filter = new BlockedBloomFilter<>(100000, 0.001);
+    for (int i = 0; i < 100000; i++) {
+      filter.add(i);
+    }
+    int falsePositives = 0;
+    for (int i = 100000; i < 600000; i++) {
+      if (filter.mightContain(i)) {
+        falsePositives++;
+      }
+    }
+    assertTrue(falsePositives < 600, "False positives: " + falsePositives);
+  }
+
+  @Test
+  void blockedFilterIsBiggerThanClassic() {
+    BlockedBloomFilter<String> filter = new BlockedBloomFilter<>(10000, 0.01);
+    double classicBits = -10000 * Math.log(0.01) / (Math.log(2) * Math.log(2));
+    assertTrue(filter.bitSize() > classicBits);
+  }
+
+  @Test
+  void nullValue() {
+    BlockedBloomFilter<String> filter = new BlockedBloomFilter<>(10, 0.01);
+    assertFalse(filter.mightContain(null));
+    filter.add(null);
+    assertTrue(filter.mightContain(null));
+  }
+
+  @Test
+  void serialization() throws IOException {
+    BlockedBloomFilter<Integer> filter = new BlockedBloomFilter<>(1000, 0.001);
+    for (int i = 0; i < 1000; i++) {
+      filter.add(i);
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    filter.writeTo(out);
+    BlockedBloomFilter<Integer> restored =
+        BlockedBloomFilter.readFrom(new ByteArrayInputStream(out.toByteArray()));
+    assertEquals(filter.bitSize(), restored.bitSize());
+    assertEquals(filter.hashFunctionCount(), restored.hashFunctionCount());
+    for (int i = 0; i < 2000; i++) {
+      assertEquals(filter.mightContain(i), restored.mightContain(i));
+    }
+  }
+
+  @Test
+  void readingCorruptedStream() {
+    byte[] bytes = {0, 0, 0, 7};
+    assertThrows(IOException.class,
+        () -> BlockedBloomFilter.readFrom(new ByteArrayInputStream(bytes)));
+  }
+
+  @Test
+  void readingHeaderWithTooManyBlocks() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(2);
+    out.writeInt(7);
+    out.writeInt(1 << 29);
+    out.writeLong(0);
+    assertThrows(IOException.class,
+        () -> BlockedBloomFilter.readFrom(new ByteArrayInputStream(bytes.toByteArray())));
+  }
+
+  @Test
+  void readingTruncatedStream() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(2);
+    out.writeInt(7);
+    out.writeInt(1000);
+    out.writeLong(0);
+    assertThrows(IOException.class,
+        () -> BlockedBloomFilter.readFrom(new ByteArrayInputStream(bytes.toByteArray())));
+  }
+
+  @Test
+  void throwIllegalArgumentExceptionIfInappropriateRate() {
+    assertThrows(IllegalArgumentException.class, () -> new BlockedBloomFilter<>(10, 1.5));
+  }
+}
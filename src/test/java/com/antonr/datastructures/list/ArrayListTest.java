@@ -1,8 +1,11 @@
 package com.antonr.datastructures.list;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import com.antonr.datastructures.CapacityPolicy;
+import java.util.Random;
 import org.junit.jupiter.api.Test;
 
 class ArrayListTest extends TestList {
@@ -29,4 +32,69 @@ class ArrayListTest extends TestList {
     } catch (IllegalArgumentException ignored) {
     }
   }
-}
\ No newline at end of file
+
+  @Test
+  void listWithCapacityOneGrows() {
+    ArrayList<String> list = new ArrayList<>(1);
+    list.add("A");
+    list.add("B");
+    assertEquals(2, list.size());
+    assertEquals("B", list.get(1));
+  }
+
+  @Test
+  void ensureCapacityAndTrimToSize() {
+    ArrayList<String> list = new ArrayList<>(2);
+    list.ensureCapacity(100);
+    assertEquals(100, list.capacity());
+    list.add("A");
+    list.trimToSize();
+    assertEquals(1, list.capacity());
+    assertEquals("A", list.get(0));
+  }
+
+  @Test
+  void clearKeepsCapacityByDefault() {
+    ArrayList<String> list = new ArrayList<>(2);
+    for (int i = 0; i < 100; i++) {
+      list.add("A");
+    }
+    int capacity = list.capacity();
+    list.clear();
+    assertEquals(capacity, list.capacity());
+    assertEquals(0, list.size());
+  }
+
+  @Test
+  void shrinkAfterSpike() {
+    ArrayList<Integer> list = new ArrayList<>(10, new CapacityPolicy(2, 1 << 20, 0.25));
+    for (int i = 0; i < 1000; i++) {
+      list.add(i);
+    }
+    int peakCapacity = list.capacity();
+    while (list.size() > 10) {
+      list.remove(list.size() - 1);
+    }
+    assertTrue(list.capacity() < peakCapacity / 4);
+    assertEquals(9, list.get(9));
+    list.clear();
+    assertEquals(10, list.capacity());
+  }
+
+  @Test
+  void parallelSortOfBigList() {
+    Random random = new Random(11);
+    ArrayList<Integer> list = new ArrayList<>();
+    int[] expected = new int[100000];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = random.nextInt();
+      list.add(expected[i]);
+    }
+    list.sort(null);
+    java.util.Arrays.sort(expected);
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], list.get(i));
+    }
+    assertEquals(500, list.binarySearch(expected[500], null));
+  }
+}
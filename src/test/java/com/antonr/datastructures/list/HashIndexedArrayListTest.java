@@ -0,0 +1,67 @@
+package com.antonr.datastructures.list;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HashIndexedArrayListTest extends TestList {
+
+  @Override
+  protected List<String> getList() {
+    return new ArrayList<>(1, true);
+  }
+
+  @Test
+  void equalHashesAreComparedByEquals() {
+    // "Aa" and "BB" have the same hash code
+    list.add("Aa");
+    list.add(null);
+    list.add("BB");
+    assertEquals(4, list.indexOf("BB"));
+    assertEquals(2, list.indexOf("Aa"));
+    assertEquals(3, list.indexOf(null));
+    assertFalse(list.contains("C"));
+  }
+
+  @Test
+  void hashesFollowElements() {
+    list.add("C");
+    list.add("D");
+    list.set("X", 0);
+    list.remove(1);
+    list.add("Y", 1);
+    assertEquals("[X, Y, C, D]", list.toString());
+    list.sort(null);
+    assertEquals(0, list.indexOf("C"));
+    assertEquals(3, list.lastIndexOf("Y"));
+    list.subList(1, 3).clear();
+    assertEquals(1, list.indexOf("Y"));
+    assertFalse(list.contains("D"));
+  }
+
+  @Test
+  void searchMatchesPlainList() {
+    Random random = new Random(42);
+    ArrayList<Integer> indexed = new ArrayList<>(10, true);
+    ArrayList<Integer> plain = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      int value = random.nextInt(1000);
+      if (random.nextInt(4) == 0 && plain.size() > 0) {
+        int index = random.nextInt(plain.size());
+        assertEquals(plain.remove(index), indexed.remove(index));
+      } else {
+        plain.add(value);
+        indexed.add(value);
+      }
+    }
+    assertTrue(indexed.isHashIndexed());
+    for (int value = 0; value < 1100; value++) {
+      assertEquals(plain.indexOf(value), indexed.indexOf(value));
+      assertEquals(plain.lastIndexOf(value), indexed.lastIndexOf(value));
+      assertEquals(plain.contains(value), indexed.contains(value));
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.antonr.datastructures.list;
+
+// Benchmark of indexOf of a plain and a hash indexed ArrayList for different sizes
+// and positions of the element. It is not a test, surefire doesn't run it.
+// Scalar scan of hashes:
+// java -cp target/test-classes:target/classes com.antonr.datastructures.list.HashScanBenchmark
+// Vector scan, Java 17+ classes go first as in a multi-release jar:
+// java --add-modules jdk.incubator.vector -cp target/test-classes:target/classes/META-INF/versions/17:target/classes com.antonr.datastructures.list.HashScanBenchmark
+// Numbers are nanoseconds per call.
+public class HashScanBenchmark {
+
+  private static final int[] SIZES = {1000, 100000, 1000000};
+  private static final String[] POSITIONS = {"first", "middle", "last", "missing"};
+  private static final long RUN_NANOS = 300_000_000L;
+  // results are summed here, so JIT can't drop the calls
+  private static volatile long sink;
+
+  public static void main(String[] args) {
+    System.out.println("vectorized hash scan: " + HashScan.isVectorized());
+    System.out.println(String.format("%10s%10s%14s%14s", "size", "position", "plain", "hashed"));
+    for (int size : SIZES) {
+      ArrayList<String> plain = new ArrayList<>(size);
+      ArrayList<String> hashed = new ArrayList<>(size, true);
+      for (int i = 0; i < size; i++) {
+        // new strings, so equals can't stop at the same reference
+        plain.add("value" + i);
+        hashed.add("value" + i);
+      }
+      for (String position : POSITIONS) {
+        String value = new String(valueAt(position, size));
+        // warm up both paths before measuring
+        measure(plain, value);
+        measure(hashed, value);
+        System.out.println(String.format("%10d%10s%14.1f%14.1f", size, position,
+            measure(plain, value), measure(hashed, value)));
+      }
+    }
+  }
+
+  private static String valueAt(String position, int size) {
+    switch (position) {
+      case "first":
+        return "value0";
+      case "middle":
+        return "value" + size / 2;
+      case "last":
+        return "value" + (size - 1);
+      default:
+        return "missing";
+    }
+  }
+
+  // nanoseconds per indexOf
+  private static double measure(ArrayList<String> list, String value) {
+    long calls = 0;
+    long sum = 0;
+    long start = System.nanoTime();
+    long elapsed;
+    do {
+      for (int i = 0; i < 16; i++) {
+        sum += list.indexOf(value);
+      }
+      calls += 16;
+      elapsed = System.nanoTime() - start;
+    } while (elapsed < RUN_NANOS);
+    sink += sum;
+    return (double) elapsed / calls;
+  }
+}
@@ -0,0 +1,71 @@
+package com.antonr.datastructures.list;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+// runs with the scalar version and, on Java 17+, once more with the vector one
+class HashScanTest {
+
+  @Test
+  void vectorizedOnlyWhereExpected() {
+    assertEquals(Boolean.getBoolean("vectorizedHashScan"), HashScan.isVectorized());
+  }
+
+  @Test
+  void findsHashesInRangesOfAllLengths() {
+    Random random = new Random(42);
+    for (int length = 0; length < 100; length++) {
+      int[] hashes = new int[length];
+      for (int i = 0; i < length; i++) {
+        hashes[i] = random.nextInt(8);
+      }
+      for (int from = 0; from <= length; from += 3) {
+        for (int to = from; to <= length; to += 5) {
+          for (int hash = 0; hash < 9; hash++) {
+            assertEquals(expectedIndexOf(hashes, from, to, hash),
+                HashScan.indexOf(hashes, from, to, hash));
+            assertEquals(expectedLastIndexOf(hashes, from, to, hash),
+                HashScan.lastIndexOf(hashes, from, to, hash));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void findsEveryMatchOneByOne() {
+    int[] hashes = new int[1000];
+    for (int i = 0; i < hashes.length; i += 37) {
+      hashes[i] = 5;
+    }
+    int found = 0;
+    for (int i = HashScan.indexOf(hashes, 0, hashes.length, 5); i >= 0;
+        i = HashScan.indexOf(hashes, i + 1, hashes.length, 5)) {
+      assertEquals(found * 37, i);
+      found++;
+    }
+    assertEquals(28, found);
+    assertEquals(998, HashScan.lastIndexOf(hashes, 0, hashes.length, 0));
+    assertEquals(27 * 37, HashScan.lastIndexOf(hashes, 0, hashes.length, 5));
+  }
+
+  private static int expectedIndexOf(int[] hashes, int from, int to, int hash) {
+    for (int i = from; i < to; i++) {
+      if (hashes[i] == hash) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int expectedLastIndexOf(int[] hashes, int from, int to, int hash) {
+    for (int i = to - 1; i >= from; i--) {
+      if (hashes[i] == hash) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
@@ -0,0 +1,113 @@
+package com.antonr.datastructures.list;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class OptimisticArrayListTest extends TestList {
+
+  @Override
+  protected List<String> getList() {
+    return new OptimisticArrayList<>();
+  }
+
+  @Test
+  void iteratorWorksOnSnapshot() {
+    Iterator<String> iterator = list.iterator();
+    list.add("C");
+    assertEquals("A", iterator.next());
+    assertEquals("B", iterator.next());
+    assertFalse(iterator.hasNext());
+    assertEquals(3, list.size());
+  }
+
+  @Test
+  void iteratorRemoveFailsIfListWasChanged() {
+    Iterator<String> iterator = list.iterator();
+    iterator.next();
+    list.add("Z", 0);
+    assertThrows(ConcurrentModificationException.class, iterator::remove);
+  }
+
+  // iterator of the view is a snapshot too, so only the view itself fails
+  @Override
+  @Test
+  void subListFailsAfterChangeOfParent() {
+    List<String> subList = list.subList(0, 1);
+    Iterator<String> iterator = subList.iterator();
+    list.add("C");
+    assertThrows(ConcurrentModificationException.class, () -> subList.get(0));
+    assertThrows(ConcurrentModificationException.class, subList::size);
+    assertEquals("A", iterator.next());
+  }
+
+  @Test
+  void readersSeeConsistentValuesWhileWriterChangesList() throws InterruptedException {
+    // every element is equal to the size of the list when it was added,
+    // so a reader can check that a value is never torn or misplaced
+    OptimisticArrayList<Integer> list = new OptimisticArrayList<>();
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    CountDownLatch start = new CountDownLatch(1);
+    Thread writer = new Thread(() -> {
+      try {
+        start.await();
+        for (int round = 0; round < 20; round++) {
+          for (int i = 0; i < 5000; i++) {
+            list.add(i);
+          }
+          list.clear();
+        }
+      } catch (Throwable e) {
+        error.set(e);
+      } finally {
+        running.set(false);
+      }
+    });
+    Thread[] readers = new Thread[4];
+    for (int r = 0; r < readers.length; r++) {
+      readers[r] = new Thread(() -> {
+        try {
+          start.await();
+          while (running.get()) {
+            int size = list.size();
+            assertTrue(size >= 0 && size <= 5000);
+            if (size > 0) {
+              int index = size - 1;
+              try {
+                Integer value = list.get(index);
+                assertEquals(index, value);
+              } catch (IndexOutOfBoundsException | IllegalStateException ignored) {
+                // list was cleared between size and get
+              }
+            }
+            int found = list.indexOf(100);
+            assertTrue(found == -1 || found == 100);
+          }
+        } catch (Throwable e) {
+          error.set(e);
+        }
+      });
+    }
+    writer.start();
+    for (Thread reader : readers) {
+      reader.start();
+    }
+    start.countDown();
+    writer.join();
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    assertNull(error.get());
+    assertTrue(list.isEmpty());
+  }
+}
@@ -0,0 +1,76 @@
+package com.antonr.datastructures.list;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// Arrays.sort against Arrays.parallelSort of boxed integers for different sizes, it shows
+// where the parallel path of ArrayList.sort (PARALLEL_SORT_THRESHOLD) starts to win.
+// It is not a test, surefire doesn't run it. parallelSort works in the common pool,
+// its parallelism is the argument (count of cores by default), run it for every count:
+// mvn test-compile
+// java -cp target/classes:target/test-classes com.antonr.datastructures.list.ParallelSortBenchmark 4
+// With parallelism 1 parallelSort is the same TimSort, so the smallest count is 2.
+// Numbers are microseconds per sort, the last column is sort / parallelSort.
+public class ParallelSortBenchmark {
+
+  private static final int[] SIZES = {1 << 10, 1 << 12, 1 << 13, 1 << 14, 1 << 15, 1 << 16,
+      1 << 18, 1 << 20};
+  private static final long WARMUP_NANOS = 2_000_000_000L;
+  private static final long RUN_NANOS = 500_000_000L;
+  // sorted arrays are summed here, so JIT can't drop the sorts
+  private static volatile long sink;
+
+  public static void main(String[] args) {
+    int parallelism = args.length > 0
+        ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+    // the property is read once, before anything touches ForkJoinPool
+    System.setProperty("java.util.concurrent.ForkJoinPool.common.parallelism",
+        String.valueOf(parallelism));
+    System.out.println("cores: " + Runtime.getRuntime().availableProcessors()
+        + ", parallelism: " + ForkJoinPool.getCommonPoolParallelism());
+    System.out.println(String.format("%10s%14s%14s%10s", "size", "sort", "parallelSort",
+        "speedup"));
+    Random random = new Random(42);
+    Integer[] warmup = randomArray(random, 1 << 14);
+    measure(warmup, false, WARMUP_NANOS);
+    measure(warmup, true, WARMUP_NANOS);
+    for (int size : SIZES) {
+      Integer[] source = randomArray(random, size);
+      double sequential = measure(source, false, RUN_NANOS);
+      double parallel = measure(source, true, RUN_NANOS);
+      System.out.println(String.format("%10d%14.1f%14.1f%10.2f", size, sequential, parallel,
+          sequential / parallel));
+    }
+  }
+
+  private static Integer[] randomArray(Random random, int size) {
+    Integer[] array = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      array[i] = random.nextInt();
+    }
+    return array;
+  }
+
+  // microseconds per sort of a copy of the source, copying is not counted
+  private static double measure(Integer[] source, boolean parallel, long nanos) {
+    Integer[] array = new Integer[source.length];
+    Comparator<Integer> comparator = Comparator.naturalOrder();
+    long sorts = 0;
+    long sortNanos = 0;
+    do {
+      System.arraycopy(source, 0, array, 0, source.length);
+      long start = System.nanoTime();
+      if (parallel) {
+        Arrays.parallelSort(array, comparator);
+      } else {
+        Arrays.sort(array, comparator);
+      }
+      sortNanos += System.nanoTime() - start;
+      sorts++;
+      sink += array[array.length / 2];
+    } while (sortNanos < nanos);
+    return sortNanos / 1000.0 / sorts;
+  }
+}
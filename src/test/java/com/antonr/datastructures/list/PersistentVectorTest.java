@@ -0,0 +1,158 @@
+package com.antonr.datastructures.list;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PersistentVectorTest {
+
+  @Test
+  void appendReturnsNewVersion() {
+    PersistentVector<String> empty = new PersistentVector<>();
+    PersistentVector<String> first = empty.append("A");
+    PersistentVector<String> second = first.append("B");
+    assertEquals(0, empty.size());
+    assertEquals(1, first.size());
+    assertEquals(2, second.size());
+    assertEquals("[A, B]", second.toString());
+  }
+
+  @Test
+  void updateDoesNotChangePreviousVersion() {
+    PersistentVector<Integer> vector = range(0, 1000);
+    PersistentVector<Integer> updated = vector.update(-1, 500);
+    assertEquals(500, vector.get(500));
+    assertEquals(-1, updated.get(500));
+    assertEquals(999, updated.get(999));
+  }
+
+  @Test
+  void getFromLargeVector() {
+    PersistentVector<Integer> vector = range(0, 40000);
+    for (int i = 0; i < vector.size(); i++) {
+      assertEquals(i, vector.get(i));
+    }
+  }
+
+  @Test
+  void concat() {
+    PersistentVector<Integer> vector = range(0, 1000).concat(range(1000, 1100));
+    assertEquals(1100, vector.size());
+    for (int i = 0; i < vector.size(); i++) {
+      assertEquals(i, vector.get(i));
+    }
+  }
+
+  @Test
+  void slice() {
+    PersistentVector<Integer> vector = range(0, 5000).slice(1234, 4321);
+    assertEquals(4321 - 1234, vector.size());
+    assertEquals(1234, vector.get(0));
+    assertEquals(4320, vector.get(vector.size() - 1));
+    assertEquals(0, vector.slice(5, 5).size());
+  }
+
+  @Test
+  void randomConcatSliceAndAppendMatchArrayList() {
+    Random random = new Random(42);
+    java.util.ArrayList<Integer> expected = new java.util.ArrayList<>();
+    PersistentVector<Integer> vector = new PersistentVector<>();
+    int next = 0;
+    for (int step = 0; step < 300; step++) {
+      int operation = random.nextInt(4);
+      if (operation == 0) {
+        int count = random.nextInt(100);
+        PersistentVector<Integer> other = range(next, next + count);
+        for (int i = next; i < next + count; i++) {
+          expected.add(i);
+        }
+        next += count;
+        vector = vector.concat(other);
+      } else if (operation == 1 && !expected.isEmpty()) {
+        int from = random.nextInt(expected.size());
+        int to = from + random.nextInt(expected.size() - from + 1);
+        vector = vector.slice(from, to);
+        expected = new java.util.ArrayList<>(expected.subList(from, to));
+      } else if (operation == 2) {
+        vector = vector.append(next);
+        expected.add(next++);
+      } else if (!expected.isEmpty()) {
+        int index = random.nextInt(expected.size());
+        vector = vector.update(-index, index);
+        expected.set(index, -index);
+      }
+      assertEquals(expected.size(), vector.size());
+      int index = 0;
+      for (Integer element : vector) {
+        assertEquals(expected.get(index), element);
+        assertEquals(expected.get(index), vector.get(index));
+        index++;
+      }
+    }
+  }
+
+  @Test
+  void indexOfAndContains() {
+    PersistentVector<String> vector = new PersistentVector<String>()
+        .append("A").append("B").append("A");
+    assertEquals(0, vector.indexOf("A"));
+    assertEquals(2, vector.lastIndexOf("A"));
+    assertEquals(-1, vector.indexOf("Z"));
+    assertTrue(vector.contains("B"));
+    assertFalse(vector.contains("Z"));
+  }
+
+  @Test
+  void mutatingOperationsAreNotSupported() {
+    PersistentVector<String> vector = new PersistentVector<String>().append("A");
+    assertThrows(UnsupportedOperationException.class, () -> vector.add("B"));
+    assertThrows(UnsupportedOperationException.class, () -> vector.set("B", 0));
+    assertThrows(UnsupportedOperationException.class, () -> vector.remove(0));
+    assertThrows(UnsupportedOperationException.class, vector::clear);
+  }
+
+  @Test
+  void wrongIndexOrRange() {
+    PersistentVector<String> vector = new PersistentVector<String>().append("A");
+    assertThrows(IndexOutOfBoundsException.class, () -> vector.get(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> vector.slice(0, 2));
+    assertThrows(IllegalStateException.class, () -> new PersistentVector<String>().get(0));
+  }
+
+  @Test
+  void gettingNonExistingElementInIterator() {
+    Iterator<String> iterator = new PersistentVector<String>().append("A").iterator();
+    iterator.next();
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+
+  @Test
+  void binarySearchAndSort() {
+    PersistentVector<Integer> vector = range(0, 1000);
+    assertEquals(700, vector.binarySearch(700, null));
+    assertEquals(-1001, vector.binarySearch(5000, null));
+    assertThrows(UnsupportedOperationException.class, () -> vector.sort(null));
+  }
+
+  @Test
+  void subListIsSlice() {
+    List<Integer> subList = range(0, 100).subList(10, 20);
+    assertEquals(10, subList.size());
+    assertEquals(10, (int) subList.get(0));
+    assertEquals(19, (int) subList.get(9));
+  }
+
+  private static PersistentVector<Integer> range(int from, int to) {
+    PersistentVector<Integer> vector = new PersistentVector<>();
+    for (int i = from; i < to; i++) {
+      vector = vector.append(i);
+    }
+    return vector;
+  }
+}
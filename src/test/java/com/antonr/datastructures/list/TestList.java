@@ -7,6 +7,8 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.antonr.datastructures.list.List;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import org.junit.jupiter.api.BeforeEach;
@@ -157,4 +159,124 @@ public abstract class TestList {
     assertThrows(IllegalStateException.class, iterator::remove);
   }
 
+  @Test
+  void sortByNaturalOrder() {
+    list.add("D");
+    list.add("C", 0);
+    list.sort(null);
+    assertEquals("[A, B, C, D]", list.toString());
+  }
+
+  @Test
+  void sortIsStable() {
+    list.clear();
+    list.add("b1");
+    list.add("a1");
+    list.add("b2");
+    list.add("a2");
+    list.sort(Comparator.comparing(value -> value.charAt(0)));
+    assertEquals("[a1, a2, b1, b2]", list.toString());
+  }
+
+  @Test
+  void binarySearch() {
+    list.add("D");
+    list.add("F");
+    assertEquals(0, list.binarySearch("A", null));
+    assertEquals(2, list.binarySearch("D", null));
+    assertEquals(3, list.binarySearch("F", Comparator.naturalOrder()));
+    assertEquals(-3, list.binarySearch("C", null));
+    assertEquals(-5, list.binarySearch("Z", null));
+    list.sort(Comparator.reverseOrder());
+    assertEquals(3, list.binarySearch("A", Comparator.reverseOrder()));
+    list.clear();
+    assertEquals(-1, list.binarySearch("A", null));
+  }
+
+  @Test
+  void addInTheMiddle() {
+    list.add("C");
+    list.add("X", 1);
+    list.add("Y", 2);
+    assertEquals("[A, X, Y, B, C]", list.toString());
+    list.remove(0);
+    list.remove(3);
+    assertEquals("[X, Y, B]", list.toString());
+  }
+
+  @Test
+  void subListIsViewOfRange() {
+    list.add("C");
+    list.add("D");
+    List<String> subList = list.subList(1, 3);
+    assertEquals(2, subList.size());
+    assertEquals("[B, C]", subList.toString());
+    assertEquals(1, subList.indexOf("C"));
+    assertFalse(subList.contains("A"));
+    subList.set("X", 0);
+    assertEquals("X", list.get(1));
+    list.set("Y", 2);
+    assertEquals("Y", subList.get(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> subList.get(2));
+    assertThrows(IndexOutOfBoundsException.class, () -> list.subList(2, 5));
+  }
+
+  @Test
+  void structuralChangesThroughSubList() {
+    list.add("C");
+    list.add("D");
+    List<String> subList = list.subList(1, 3);
+    subList.add("X");
+    subList.add("Y", 0);
+    assertEquals("[A, Y, B, C, X, D]", list.toString());
+    assertEquals("C", subList.remove(2));
+    assertEquals("[Y, B, X]", subList.toString());
+    Iterator<String> iterator = subList.iterator();
+    iterator.next();
+    iterator.remove();
+    assertEquals("B", iterator.next());
+    assertEquals("[B, X]", subList.toString());
+    subList.clear();
+    assertTrue(subList.isEmpty());
+    assertEquals("[A, D]", list.toString());
+  }
+
+  @Test
+  void nestedSubLists() {
+    list.add("C");
+    list.add("D");
+    list.add("E");
+    List<String> subList = list.subList(1, 4);
+    List<String> nested = subList.subList(1, 3);
+    assertEquals("[C, D]", nested.toString());
+    nested.remove(0);
+    assertEquals("[B, D]", subList.toString());
+    nested.add("Z", 0);
+    assertEquals("[B, Z, D]", subList.toString());
+    assertEquals("[A, B, Z, D, E]", list.toString());
+  }
+
+  @Test
+  void sortAndBinarySearchOfSubList() {
+    list.add("D");
+    list.add("C");
+    list.add("E", 0);
+    List<String> subList = list.subList(1, 5);
+    subList.sort(null);
+    assertEquals("[E, A, B, C, D]", list.toString());
+    assertEquals(2, subList.binarySearch("C", null));
+    assertEquals(-1, subList.binarySearch("0", null));
+    assertEquals(-5, subList.binarySearch("Z", null));
+  }
+
+  @Test
+  void subListFailsAfterChangeOfParent() {
+    List<String> subList = list.subList(0, 1);
+    Iterator<String> iterator = subList.iterator();
+    list.add("C");
+    assertThrows(ConcurrentModificationException.class, () -> subList.get(0));
+    assertThrows(ConcurrentModificationException.class, subList::size);
+    assertThrows(ConcurrentModificationException.class, iterator::next);
+  }
+
 }
@@ -0,0 +1,155 @@
+package com.antonr.datastructures.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ArenaStringMapTest {
+
+  @Test
+  void putAndGet() {
+    Map<String, Integer> map = new ArenaStringMap<>();
+    assertNull(map.put("A", 1));
+    assertEquals(1, map.put("A", 2));
+    assertEquals(2, map.get("A"));
+    assertNull(map.get("B"));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  void getByCharSequence() {
+    ArenaStringMap<Integer> map = new ArenaStringMap<>();
+    map.put("symbol", 1);
+    StringBuilder builder = new StringBuilder("sym");
+    assertNull(map.get(builder));
+    builder.append("bol");
+    assertEquals(1, map.get(builder));
+    assertTrue(map.containsKey(builder));
+    assertFalse(map.containsKey(builder.append('s')));
+  }
+
+  @Test
+  void getByByteSlice() {
+    ArenaStringMap<Integer> map = new ArenaStringMap<>();
+    map.put("key", 1);
+    byte[] buffer = "a key here".getBytes(StandardCharsets.UTF_8);
+    assertEquals(1, map.get(buffer, 2, 3));
+    assertNull(map.get(buffer, 2, 4));
+    assertTrue(map.containsKey(buffer, 2, 3));
+    assertThrows(IndexOutOfBoundsException.class, () -> map.get(buffer, 8, 3));
+  }
+
+  @Test
+  void putByByteSlice() {
+    ArenaStringMap<Integer> map = new ArenaStringMap<>();
+    byte[] buffer = "[name]".getBytes(StandardCharsets.UTF_8);
+    assertNull(map.put(buffer, 1, 4, 1));
+    assertEquals(1, map.put("name", 2));
+    assertEquals(2, map.get("name"));
+    assertEquals("name", map.iterator().next().getKey());
+    assertEquals(2, map.remove(buffer, 1, 4));
+    assertEquals(0, map.size());
+  }
+
+  @Test
+  void nonAsciiKeysAreEncodedAsUtf8() {
+    ArenaStringMap<Integer> map = new ArenaStringMap<>();
+    String key = "\u043a\u043b\u044e\u0447\u20ac\uD83D\uDE00";
+    map.put(key, 1);
+    byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+    assertEquals(1, map.get(bytes, 0, bytes.length));
+    assertEquals(bytes.length, map.arenaSize());
+    assertEquals(key, map.iterator().next().getKey());
+  }
+
+  @Test
+  void unpairedSurrogateIsEncodedAsQuestionMark() {
+    ArenaStringMap<Integer> map = new ArenaStringMap<>();
+    map.put("a\uD800b", 1);
+    assertEquals(1, map.get("a?b"));
+    byte[] bytes = "a\uD800b".getBytes(StandardCharsets.UTF_8);
+    assertEquals(1, map.get(bytes, 0, bytes.length));
+  }
+
+  @Test
+  void emptyKey() {
+    ArenaStringMap<Integer> map = new ArenaStringMap<>();
+    map.put("", 1);
+    assertEquals(1, map.get(""));
+    assertEquals(1, map.get(new byte[0], 0, 0));
+    assertEquals(1, map.remove(""));
+    assertFalse(map.containsKey(""));
+  }
+
+  @Test
+  void removedKeysAreCompacted() {
+    ArenaStringMap<Integer> map = new ArenaStringMap<>(4);
+    for (int i = 0; i < 100000; i++) {
+      map.put("key" + i, i);
+      if (i >= 10) {
+        assertEquals(i - 10, map.remove("key" + (i - 10)));
+      }
+    }
+    assertEquals(10, map.size());
+    assertTrue(map.arenaSize() < 1000);
+    for (int i = 99990; i < 100000; i++) {
+      assertEquals(i, map.get("key" + i));
+    }
+  }
+
+  @Test
+  void randomOperationsMatchHashMap() {
+    Random random = new Random(7);
+    ArenaStringMap<Integer> map = new ArenaStringMap<>();
+    java.util.HashMap<String, Integer> expected = new java.util.HashMap<>();
+    for (int i = 0; i < 100000; i++) {
+      String key = "\u00e9" + random.nextInt(5000);
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        assertEquals(expected.put(key, i), map.put(key, i));
+      }
+    }
+    assertEquals(expected.size(), map.size());
+    int iterated = 0;
+    for (Map.Entry<String, Integer> entry : map) {
+      assertEquals(expected.get(entry.getKey()), entry.getValue());
+      iterated++;
+    }
+    assertEquals(expected.size(), iterated);
+  }
+
+  @Test
+  void removeThroughIterator() {
+    Map<String, Integer> map = new ArenaStringMap<>();
+    for (int i = 0; i < 100; i++) {
+      map.put(String.valueOf(i), i);
+    }
+    Iterator<Map.Entry<String, Integer>> iterator = map.iterator();
+    int iterated = 0;
+    while (iterator.hasNext()) {
+      iterated++;
+      if (iterator.next().getValue() % 2 == 0) {
+        iterator.remove();
+      }
+    }
+    assertEquals(100, iterated);
+    assertEquals(50, map.size());
+    assertFalse(map.containsKey("10"));
+    assertTrue(map.containsKey("11"));
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+
+  @Test
+  void throwIllegalArgumentExceptionIfInappropriateInitialCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new ArenaStringMap<>(0));
+  }
+}
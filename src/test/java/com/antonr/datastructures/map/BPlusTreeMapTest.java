@@ -0,0 +1,183 @@
+package com.antonr.datastructures.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+class BPlusTreeMapTest {
+
+  @Test
+  void putAndGet() {
+    SortedMap<String, Integer> map = new BPlusTreeMap<>();
+    assertNull(map.put("B", 2));
+    assertNull(map.put("A", 1));
+    assertEquals(2, map.put("B", 3));
+    assertEquals(1, map.get("A"));
+    assertEquals(3, map.get("B"));
+    assertNull(map.get("C"));
+    assertEquals(2, map.size());
+  }
+
+  @Test
+  void orderedIteration() {
+    SortedMap<Integer, Integer> map = new BPlusTreeMap<>(4, null);
+    for (int i = 100; i > 0; i--) {
+      map.put(i, i * 10);
+    }
+    int expected = 1;
+    for (Map.Entry<Integer, Integer> entry : map) {
+      assertEquals(expected, entry.getKey());
+      assertEquals(expected * 10, entry.getValue());
+      expected++;
+    }
+    assertEquals(101, expected);
+  }
+
+  @Test
+  void navigation() {
+    SortedMap<Integer, String> map = new BPlusTreeMap<>(4, null);
+    for (int i = 0; i < 100; i += 2) {
+      map.put(i, String.valueOf(i));
+    }
+    assertEquals(0, map.firstKey());
+    assertEquals(98, map.lastKey());
+    assertEquals(4, map.floorKey(5));
+    assertEquals(4, map.floorKey(4));
+    assertEquals(6, map.ceilingKey(5));
+    assertEquals(2, map.lowerKey(4));
+    assertEquals(6, map.higherKey(4));
+    assertNull(map.floorKey(-1));
+    assertNull(map.higherKey(98));
+  }
+
+  @Test
+  void subMap() {
+    SortedMap<Integer, String> map = new BPlusTreeMap<>(4, null);
+    for (int i = 0; i < 100; i++) {
+      map.put(i, String.valueOf(i));
+    }
+    SortedMap<Integer, String> subMap = map.subMap(10, 20);
+    assertEquals(10, subMap.size());
+    assertEquals(10, subMap.firstKey());
+    assertEquals(19, subMap.lastKey());
+    assertNull(subMap.get(20));
+    assertNull(subMap.floorKey(5));
+    assertEquals(19, subMap.floorKey(50));
+    assertThrows(IllegalArgumentException.class, () -> subMap.put(20, "20"));
+
+    subMap.remove(15);
+    assertFalse(map.containsKey(15));
+    assertEquals(4, subMap.subMap(12, 17).size());
+  }
+
+  @Test
+  void removeMatchesTreeMap() {
+    Random random = new Random(7);
+    SortedMap<Integer, Integer> map = new BPlusTreeMap<>(4, null);
+    TreeMap<Integer, Integer> expected = new TreeMap<>();
+    for (int i = 0; i < 20000; i++) {
+      int key = random.nextInt(500);
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        assertEquals(expected.put(key, i), map.put(key, i));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator();
+    for (java.util.Map.Entry<Integer, Integer> entry : expected.entrySet()) {
+      Map.Entry<Integer, Integer> actual = iterator.next();
+      assertEquals(entry.getKey(), actual.getKey());
+      assertEquals(entry.getValue(), actual.getValue());
+    }
+    assertFalse(iterator.hasNext());
+  }
+
+  @Test
+  void removeThroughIterator() {
+    SortedMap<Integer, Integer> map = new BPlusTreeMap<>(4, null);
+    for (int i = 0; i < 50; i++) {
+      map.put(i, i);
+    }
+    Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().getKey() % 2 == 0) {
+        iterator.remove();
+      }
+    }
+    assertEquals(25, map.size());
+    assertEquals(1, map.firstKey());
+  }
+
+  @Test
+  void fromSorted() {
+    java.util.List<Map.Entry<Integer, String>> entries = new java.util.ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      entries.add(entry(i, String.valueOf(i)));
+    }
+    SortedMap<Integer, String> map = BPlusTreeMap.fromSorted(entries, null);
+    assertEquals(1000, map.size());
+    assertEquals("500", map.get(500));
+    assertEquals(999, map.lastKey());
+    map.put(1000, "1000");
+    map.remove(0);
+    assertEquals(1, map.firstKey());
+    assertEquals(1000, map.size());
+  }
+
+  @Test
+  void fromSortedThrowsExceptionForUnsortedInput() {
+    assertThrows(IllegalArgumentException.class,
+        () -> BPlusTreeMap.fromSorted(Arrays.asList(entry(2, "2"), entry(1, "1")), null));
+  }
+
+  @Test
+  void customComparator() {
+    SortedMap<String, Integer> map = new BPlusTreeMap<>(Comparator.reverseOrder());
+    map.put("A", 1);
+    map.put("C", 3);
+    map.put("B", 2);
+    assertEquals("C", map.firstKey());
+    assertEquals("A", map.lastKey());
+  }
+
+  @Test
+  void emptyMap() {
+    SortedMap<Integer, Integer> map = new BPlusTreeMap<>();
+    assertThrows(NoSuchElementException.class, map::firstKey);
+    assertNull(map.ceilingKey(1));
+    assertFalse(map.iterator().hasNext());
+    map.put(1, 1);
+    map.remove(1);
+    assertTrue(map.entrySet().isEmpty());
+  }
+
+  private static Map.Entry<Integer, String> entry(int key, String value) {
+    return new Map.Entry<Integer, String>() {
+      @Override
+      public Integer getKey() {
+        return key;
+      }
+
+      @Override
+      public String getValue() {
+        return value;
+      }
+
+      @Override
+      public String setValue(String value) {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+}
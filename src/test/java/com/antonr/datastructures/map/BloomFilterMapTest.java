@@ -0,0 +1,58 @@
+package com.antonr.datastructures.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antonr.datastructures.filter.BlockedBloomFilter;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterMapTest {
+
+  @Test
+  void putAndGet() {
+    Map<String, Integer> map = new BloomFilterMap<>(100, 0.01);
+    map.put("A", 1);
+    map.put("B", 2);
+    assertEquals(1, map.get("A"));
+    assertEquals(2, map.get("B"));
+    assertNull(map.get("C"));
+    assertTrue(map.containsKey("A"));
+    assertFalse(map.containsKey("C"));
+    assertEquals(2, map.size());
+  }
+
+  @Test
+  void absentKeysDontReachUnderlyingMap() {
+    CountingMap<Integer, Integer> counting = new CountingMap<>();
+    Map<Integer, Integer> map = new BloomFilterMap<>(counting, new BlockedBloomFilter<>(1000, 0.01));
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, i);
+    }
+    for (int i = 1000; i < 11000; i++) {
+      assertNull(map.get(i));
+    }
+    assertTrue(counting.lookups < 300, "Lookups: " + counting.lookups);
+  }
+
+  @Test
+  void removedKeyIsAbsent() {
+    Map<String, Integer> map = new BloomFilterMap<>(100, 0.01);
+    map.put("A", 1);
+    assertEquals(1, map.remove("A"));
+    assertFalse(map.containsKey("A"));
+    assertNull(map.remove("A"));
+  }
+
+  private static class CountingMap<K, V> extends HashMap<K, V> {
+
+    int lookups;
+
+    @Override
+    public V get(K key) {
+      lookups++;
+      return super.get(key);
+    }
+  }
+}
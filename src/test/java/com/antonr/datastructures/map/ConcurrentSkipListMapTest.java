@@ -0,0 +1,185 @@
+package com.antonr.datastructures.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentSkipListMapTest {
+
+  private static final int THREADS = 8;
+
+  @Test
+  void putGetRemove() {
+    SortedMap<String, Integer> map = new ConcurrentSkipListMap<>();
+    assertNull(map.put("B", 2));
+    assertNull(map.put("A", 1));
+    assertEquals(2, map.put("B", 3));
+    assertEquals(3, map.get("B"));
+    assertEquals(1, map.remove("A"));
+    assertNull(map.remove("A"));
+    assertFalse(map.containsKey("A"));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  void navigation() {
+    SortedMap<Integer, Integer> map = new ConcurrentSkipListMap<>();
+    for (int i = 0; i < 100; i += 2) {
+      map.put(i, i);
+    }
+    assertEquals(0, map.firstKey());
+    assertEquals(98, map.lastKey());
+    assertEquals(4, map.floorKey(5));
+    assertEquals(6, map.ceilingKey(5));
+    assertEquals(2, map.lowerKey(4));
+    assertEquals(6, map.higherKey(4));
+    assertNull(map.lowerKey(0));
+    assertEquals(5, map.subMap(10, 20).size());
+  }
+
+  @Test
+  void emptyMap() {
+    SortedMap<Integer, Integer> map = new ConcurrentSkipListMap<>();
+    assertThrows(NoSuchElementException.class, map::firstKey);
+    assertThrows(NoSuchElementException.class, map::lastKey);
+    assertFalse(map.iterator().hasNext());
+  }
+
+  @Test
+  void nullValuesAreNotAllowed() {
+    SortedMap<Integer, Integer> map = new ConcurrentSkipListMap<>();
+    assertThrows(NullPointerException.class, () -> map.put(1, null));
+  }
+
+  @Test
+  void concurrentInsertsOfDisjointKeys() throws InterruptedException {
+    SortedMap<Integer, Integer> map = new ConcurrentSkipListMap<>();
+    int keysPerThread = 10000;
+    runConcurrently(thread -> {
+      for (int i = 0; i < keysPerThread; i++) {
+        int key = i * THREADS + thread;
+        map.put(key, key);
+      }
+    });
+    assertEquals(THREADS * keysPerThread, map.size());
+    int expected = 0;
+    for (Map.Entry<Integer, Integer> entry : map) {
+      assertEquals(expected, entry.getKey());
+      expected++;
+    }
+    assertEquals(THREADS * keysPerThread, expected);
+  }
+
+  // Every successful put of a new key and every successful remove is counted,
+  // for a linearizable map the difference per key must match the final state.
+  @Test
+  void concurrentPutsAndRemovesAreLinearizable() throws InterruptedException {
+    SortedMap<Integer, Integer> map = new ConcurrentSkipListMap<>();
+    int keys = 64;
+    int[][] inserted = new int[THREADS][keys];
+    int[][] removed = new int[THREADS][keys];
+    runConcurrently(thread -> {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      for (int i = 0; i < 50000; i++) {
+        int key = random.nextInt(keys);
+        if (random.nextBoolean()) {
+          if (map.put(key, thread) == null) {
+            inserted[thread][key]++;
+          }
+        } else if (map.remove(key) != null) {
+          removed[thread][key]++;
+        }
+      }
+    });
+    int expectedSize = 0;
+    for (int key = 0; key < keys; key++) {
+      int balance = 0;
+      for (int thread = 0; thread < THREADS; thread++) {
+        balance += inserted[thread][key] - removed[thread][key];
+      }
+      assertEquals(map.containsKey(key) ? 1 : 0, balance, "key " + key);
+      expectedSize += balance;
+    }
+    assertEquals(expectedSize, map.size());
+  }
+
+  @Test
+  void rangeScansDuringConcurrentInserts() throws InterruptedException {
+    SortedMap<Integer, Integer> map = new ConcurrentSkipListMap<>();
+    AtomicReference<String> failure = new AtomicReference<>();
+    runConcurrently(thread -> {
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      for (int i = 0; i < 2000; i++) {
+        if (thread % 2 == 0) {
+          map.put(random.nextInt(100000), i);
+        } else {
+          int from = random.nextInt(90000);
+          Integer previous = null;
+          for (Map.Entry<Integer, Integer> entry : map.subMap(from, from + 10000).entrySet()) {
+            if (previous != null && previous >= entry.getKey()) {
+              failure.set("Keys are not ascending: " + previous + ", " + entry.getKey());
+            }
+            previous = entry.getKey();
+          }
+        }
+      }
+    });
+    assertNull(failure.get());
+  }
+
+  @Test
+  void removeThroughIterator() {
+    SortedMap<Integer, Integer> map = new ConcurrentSkipListMap<>();
+    for (int i = 0; i < 10; i++) {
+      map.put(i, i);
+    }
+    Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().getKey() < 5) {
+        iterator.remove();
+      }
+    }
+    assertEquals(5, map.size());
+    assertEquals(5, map.firstKey());
+    assertTrue(map.containsKey(9));
+  }
+
+  private static void runConcurrently(ThreadTask task) throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    for (int i = 0; i < THREADS; i++) {
+      int thread = i;
+      threads.add(new Thread(() -> {
+        try {
+          start.await();
+          task.run(thread);
+        } catch (Throwable e) {
+          error.set(e);
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertNull(error.get());
+  }
+
+  private interface ThreadTask {
+
+    void run(int thread) throws Exception;
+  }
+}
@@ -0,0 +1,144 @@
+package com.antonr.datastructures.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CuckooHashMapTest {
+
+  @Test
+  void putAndGet() {
+    Map<String, Integer> map = new CuckooHashMap<>();
+    assertNull(map.put("A", 1));
+    assertEquals(1, map.put("A", 2));
+    assertEquals(2, map.get("A"));
+    assertNull(map.get("B"));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  void putWithCollisions() {
+    // Elements with same hashcode() = 2019172
+    Map<String, Integer> map = new CuckooHashMap<>();
+    map.put("AaAa", 1);
+    map.put("BBBB", 2);
+    map.put("AaBB", 3);
+    assertEquals(1, map.get("AaAa"));
+    assertEquals(2, map.get("BBBB"));
+    assertEquals(3, map.get("AaBB"));
+    assertEquals(2, map.remove("BBBB"));
+    assertFalse(map.containsKey("BBBB"));
+    assertEquals(2, map.size());
+  }
+
+  @Test
+  void manyKeysWithSameHashCode() {
+    // 32 strings of "Aa" and "BB" with the same hashcode(), more than both buckets and stash
+    java.util.List<String> keys = new java.util.ArrayList<>();
+    keys.add("");
+    for (int i = 0; i < 5; i++) {
+      java.util.List<String> longer = new java.util.ArrayList<>();
+      for (String key : keys) {
+        longer.add(key + "Aa");
+        longer.add(key + "BB");
+      }
+      keys = longer;
+    }
+    CuckooHashMap<String, Integer> map = new CuckooHashMap<>();
+    for (int i = 0; i < keys.size(); i++) {
+      assertNull(map.put(keys.get(i), i));
+      map.put("key" + i, -i);
+    }
+    assertEquals(64, map.size());
+    // the table grows with the count of entries, not because of the collisions
+    assertTrue(map.capacity() <= 256, "Capacity: " + map.capacity());
+    for (int i = 0; i < keys.size(); i++) {
+      assertEquals(i, map.get(keys.get(i)));
+      assertEquals(-i, map.get("key" + i));
+    }
+    for (int i = 0; i < keys.size(); i += 2) {
+      assertEquals(i, map.remove(keys.get(i)));
+    }
+    assertEquals(48, map.size());
+    for (int i = 0; i < keys.size(); i++) {
+      assertEquals(i % 2 == 0 ? null : i, map.get(keys.get(i)));
+    }
+  }
+
+  @Test
+  void nullKey() {
+    Map<String, Integer> map = new CuckooHashMap<>();
+    map.put(null, 1);
+    assertTrue(map.containsKey(null));
+    assertEquals(1, map.get(null));
+    assertNull(map.iterator().next().getKey());
+    assertEquals(1, map.remove(null));
+    assertFalse(map.containsKey(null));
+  }
+
+  @Test
+  void highLoadFactorWithoutResize() {
+    CuckooHashMap<Integer, Integer> map = new CuckooHashMap<>(1 << 14);
+    int capacity = map.capacity();
+    int count = (int) (capacity * 0.93);
+    for (int i = 0; i < count; i++) {
+      map.put(i * 31, i);
+    }
+    assertEquals(capacity, map.capacity());
+    for (int i = 0; i < count; i++) {
+      assertEquals(i, map.get(i * 31));
+    }
+  }
+
+  @Test
+  void randomOperationsMatchHashMap() {
+    Random random = new Random(3);
+    Map<Integer, Integer> map = new CuckooHashMap<>();
+    java.util.HashMap<Integer, Integer> expected = new java.util.HashMap<>();
+    for (int i = 0; i < 100000; i++) {
+      int key = random.nextInt(5000);
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        assertEquals(expected.put(key, i), map.put(key, i));
+      }
+    }
+    assertEquals(expected.size(), map.size());
+    int iterated = 0;
+    for (Map.Entry<Integer, Integer> entry : map) {
+      assertEquals(expected.get(entry.getKey()), entry.getValue());
+      iterated++;
+    }
+    assertEquals(expected.size(), iterated);
+  }
+
+  @Test
+  void removeThroughIterator() {
+    Map<Integer, Integer> map = new CuckooHashMap<>();
+    for (int i = 0; i < 100; i++) {
+      map.put(i, i);
+    }
+    Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().getKey() % 2 == 0) {
+        iterator.remove();
+      }
+    }
+    assertEquals(50, map.size());
+    assertFalse(map.containsKey(10));
+    assertTrue(map.containsKey(11));
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+
+  @Test
+  void throwIllegalArgumentExceptionIfInappropriateInitialCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new CuckooHashMap<>(0));
+  }
+}
@@ -0,0 +1,86 @@
+package com.antonr.datastructures.map;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Tail latency of get of CuckooHashMap at load factors above 90% against the chained
+// HashMap with the same entries (its own load factor is fixed at 0.75, the column
+// is the load of the cuckoo table). It is not a test, surefire doesn't run it:
+// mvn test-compile
+// java -cp target/classes:target/test-classes com.antonr.datastructures.map.CuckooLatencyBenchmark
+// Every get is timed on its own, numbers are nanoseconds and include the cost of
+// System.nanoTime, which is the same for both maps.
+public class CuckooLatencyBenchmark {
+
+  private static final int CAPACITY = 1 << 20;
+  private static final double[] LOAD_FACTORS = {0.90, 0.93, 0.95};
+  private static final int LOOKUPS = 1 << 21;
+  private static final int WARMUP_ROUNDS = 3;
+  // results of gets are summed here, so JIT can't drop them
+  private static volatile long sink;
+
+  public static void main(String[] args) {
+    System.out.println(String.format("%-8s%6s%8s%8s%8s%8s%10s", "map", "load", "lookup",
+        "p50", "p99", "p99.9", "max"));
+    for (double loadFactor : LOAD_FACTORS) {
+      int size = (int) (CAPACITY * loadFactor);
+      String[] keys = new String[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = "key" + i;
+      }
+      CuckooHashMap<String, Integer> cuckoo = new CuckooHashMap<>(CAPACITY);
+      HashMap<String, Integer> chained = new HashMap<>();
+      for (int i = 0; i < size; i++) {
+        cuckoo.put(keys[i], i);
+        chained.put(keys[i], i);
+      }
+      if (cuckoo.capacity() != CAPACITY) {
+        throw new IllegalStateException("Cuckoo map was resized to " + cuckoo.capacity());
+      }
+      String[] hits = lookups(keys, size, false);
+      String[] misses = lookups(keys, size, true);
+      print("cuckoo", loadFactor, "hit", measure(cuckoo, hits));
+      print("chained", loadFactor, "hit", measure(chained, hits));
+      print("cuckoo", loadFactor, "miss", measure(cuckoo, misses));
+      print("chained", loadFactor, "miss", measure(chained, misses));
+    }
+  }
+
+  // keys in random order, new strings, so equals can't stop at the same reference
+  private static String[] lookups(String[] keys, int size, boolean missing) {
+    Random random = new Random(42);
+    String[] lookups = new String[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      int index = random.nextInt(size);
+      lookups[i] = missing ? "missing" + index : new String(keys[index]);
+    }
+    return lookups;
+  }
+
+  // sorted latencies of the last round
+  private static long[] measure(Map<String, Integer> map, String[] lookups) {
+    long[] latencies = new long[lookups.length];
+    for (int round = 0; round <= WARMUP_ROUNDS; round++) {
+      long sum = 0;
+      for (int i = 0; i < lookups.length; i++) {
+        long start = System.nanoTime();
+        Integer value = map.get(lookups[i]);
+        latencies[i] = System.nanoTime() - start;
+        sum += value == null ? 0 : value;
+      }
+      sink += sum;
+    }
+    Arrays.sort(latencies);
+    return latencies;
+  }
+
+  private static void print(String name, double loadFactor, String lookup, long[] latencies) {
+    System.out.println(String.format("%-8s%6.2f%8s%8d%8d%8d%10d", name, loadFactor, lookup,
+        percentile(latencies, 0.5), percentile(latencies, 0.99),
+        percentile(latencies, 0.999), latencies[latencies.length - 1]));
+  }
+
+  private static long percentile(long[] sorted, double fraction) {
+    return sorted[(int) Math.min(sorted.length - 1, (long) (sorted.length * fraction))];
+  }
+}
@@ -0,0 +1,83 @@
+package com.antonr.datastructures.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class FrozenMapTest {
+
+  @Test
+  void copyOfHashMap() {
+    Map<String, Integer> source = new HashMap<>();
+    for (int i = 0; i < 100000; i++) {
+      source.put("key" + i, i);
+    }
+    Map<String, Integer> map = FrozenMap.copyOf(source);
+    assertEquals(100000, map.size());
+    for (int i = 0; i < 100000; i++) {
+      assertEquals(i, map.get("key" + i));
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertNull(map.get("missing" + i));
+      assertFalse(map.containsKey("missing" + i));
+    }
+  }
+
+  @Test
+  void keysWithEqualHashCodes() {
+    // Elements with same hashcode() = 2019172
+    Map<String, Integer> source = new HashMap<>();
+    source.put("AaAa", 1);
+    source.put("BBBB", 2);
+    source.put("AaBB", 3);
+    source.put("other", 4);
+    Map<String, Integer> map = FrozenMap.copyOf(source);
+    assertEquals(4, map.size());
+    assertEquals(1, map.get("AaAa"));
+    assertEquals(2, map.get("BBBB"));
+    assertEquals(3, map.get("AaBB"));
+    assertEquals(4, map.get("other"));
+    assertFalse(map.containsKey("BBAa"));
+  }
+
+  @Test
+  void iteration() {
+    Map<Integer, Integer> source = new HashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      source.put(i, i);
+    }
+    Set<Integer> keys = new HashSet<>();
+    for (Map.Entry<Integer, Integer> entry : FrozenMap.copyOf(source)) {
+      assertEquals(entry.getKey(), entry.getValue());
+      keys.add(entry.getKey());
+    }
+    assertEquals(1000, keys.size());
+    assertEquals(1000, FrozenMap.copyOf(source).entrySet().size());
+  }
+
+  @Test
+  void emptyMap() {
+    Map<String, String> map = FrozenMap.copyOf(new HashMap<>());
+    assertEquals(0, map.size());
+    assertNull(map.get("A"));
+    assertFalse(map.iterator().hasNext());
+  }
+
+  @Test
+  void modificationsAreNotSupported() {
+    Map<String, String> source = new HashMap<>();
+    source.put("A", "A");
+    Map<String, String> map = FrozenMap.copyOf(source);
+    assertThrows(UnsupportedOperationException.class, () -> map.put("B", "B"));
+    assertThrows(UnsupportedOperationException.class, () -> map.remove("A"));
+    assertThrows(UnsupportedOperationException.class,
+        () -> map.iterator().next().setValue("C"));
+    assertTrue(map.containsKey("A"));
+  }
+}
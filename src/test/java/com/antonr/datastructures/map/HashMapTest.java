@@ -2,9 +2,11 @@ package com.antonr.datastructures.map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.antonr.datastructures.CapacityPolicy;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import org.junit.jupiter.api.Test;
@@ -99,4 +101,120 @@ class HashMapTest {
     map.put("2", "2");
     assertEquals(2, map.entrySet().size());
   }
-}
\ No newline at end of file
+
+  @Test
+  void missingKeys() {
+    Map<String, String> map = new HashMap<>();
+    map.put("a", "a");
+    // "q" is in the same bucket as "a"
+    assertNull(map.get("q"));
+    assertNull(map.get("z"));
+    assertFalse(map.containsKey("q"));
+    assertNull(map.remove("q"));
+    assertNull(map.remove("z"));
+    assertEquals(1, map.size());
+    assertEquals("a", map.remove("a"));
+    assertEquals(0, map.size());
+  }
+
+  @Test
+  void putReturnsPreviousValue() {
+    Map<String, Integer> map = new HashMap<>();
+    assertNull(map.put("AaAa", 1));
+    // same bucket as "AaAa"
+    assertNull(map.put("BBBB", 2));
+    assertNull(map.put("AaBB", 3));
+    assertEquals(2, map.put("BBBB", 4));
+    assertEquals(3, map.size());
+  }
+
+  @Test
+  void resizeKeepsAllEntries() {
+    Map<Integer, Integer> map = new HashMap<>(2);
+    for (int i = 0; i < 10000; i++) {
+      map.put(i, i);
+    }
+    assertEquals(10000, map.size());
+    for (int i = 0; i < 10000; i++) {
+      assertEquals(i, map.get(i));
+    }
+  }
+
+  @Test
+  void nullKey() {
+    Map<String, String> map = new HashMap<>();
+    assertNull(map.put(null, "1"));
+    assertEquals("1", map.put(null, "2"));
+    assertEquals("2", map.get(null));
+    assertTrue(map.containsKey(null));
+  }
+
+  @Test
+  void shrinkAfterMassRemoval() {
+    HashMap<Integer, Integer> map = new HashMap<>(16, new CapacityPolicy(2, 1 << 20, 0.25));
+    for (int i = 0; i < 10000; i++) {
+      map.put(i, i);
+    }
+    int peakCapacity = map.capacity();
+    for (int i = 10; i < 10000; i++) {
+      map.remove(i);
+    }
+    assertTrue(map.capacity() < peakCapacity / 4);
+    for (int i = 0; i < 10; i++) {
+      assertEquals(i, map.get(i));
+    }
+  }
+
+  @Test
+  void iteratorRemoveDoesNotShrink() {
+    HashMap<Integer, Integer> map = new HashMap<>(16, new CapacityPolicy(2, 1 << 20, 0.25));
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, i);
+    }
+    int capacity = map.capacity();
+    int iterated = 0;
+    Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator();
+    while (iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+      iterated++;
+    }
+    assertEquals(1000, iterated);
+    assertEquals(capacity, map.capacity());
+    assertEquals(0, map.size());
+  }
+
+  @Test
+  void ensureCapacityAndTrimToSize() {
+    HashMap<Integer, Integer> map = new HashMap<>(2);
+    map.ensureCapacity(1000);
+    int capacity = map.capacity();
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, i);
+    }
+    assertEquals(capacity, map.capacity());
+    for (int i = 10; i < 1000; i++) {
+      map.remove(i);
+    }
+    assertEquals(capacity, map.capacity());
+    map.trimToSize();
+    assertTrue(map.capacity() < 20);
+    assertEquals(5, map.get(5));
+  }
+
+  @Test
+  void clearThroughEntrySet() {
+    Map<String, String> map = new HashMap<>();
+    map.put("1", "1");
+    map.entrySet().clear();
+    assertEquals(0, map.size());
+    assertNull(map.get("1"));
+    map.put("2", "2");
+    assertEquals("2", map.get("2"));
+  }
+
+  @Test
+  void throwIllegalArgumentExceptionIfInappropriateInitialCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new HashMap<>(0));
+  }
+}
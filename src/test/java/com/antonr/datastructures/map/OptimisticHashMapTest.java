@@ -0,0 +1,103 @@
+package com.antonr.datastructures.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class OptimisticHashMapTest {
+
+  @Test
+  void putAndGet() {
+    Map<String, Integer> map = new OptimisticHashMap<>();
+    assertNull(map.put("A", 1));
+    assertEquals(1, map.put("A", 2));
+    assertEquals(2, map.get("A"));
+    assertNull(map.get("B"));
+    assertTrue(map.containsKey("A"));
+    assertEquals(2, map.remove("A"));
+    assertEquals(0, map.size());
+  }
+
+  @Test
+  void iteratorChangesMapByKey() {
+    Map<Integer, Integer> map = new OptimisticHashMap<>();
+    for (int i = 0; i < 10; i++) {
+      map.put(i, i);
+    }
+    Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Integer, Integer> entry = iterator.next();
+      if (entry.getKey() % 2 == 0) {
+        iterator.remove();
+      } else {
+        entry.setValue(-entry.getKey());
+      }
+    }
+    assertEquals(5, map.size());
+    assertEquals(5, map.entrySet().size());
+    assertFalse(map.containsKey(4));
+    assertEquals(-5, map.get(5));
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+
+  @Test
+  void readersSeeConsistentValuesWhileWriterChangesMap() throws InterruptedException {
+    // values are always equal to keys, resizes and removals go on meanwhile
+    Map<Integer, Integer> map = new OptimisticHashMap<>(2);
+    AtomicBoolean running = new AtomicBoolean(true);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    CountDownLatch start = new CountDownLatch(1);
+    Thread writer = new Thread(() -> {
+      try {
+        start.await();
+        for (int i = 0; i < 100000; i++) {
+          map.put(i, i);
+          if (i % 2 == 0) {
+            map.remove(i / 2);
+          }
+        }
+      } catch (Throwable e) {
+        error.set(e);
+      } finally {
+        running.set(false);
+      }
+    });
+    Thread[] readers = new Thread[4];
+    for (int r = 0; r < readers.length; r++) {
+      int seed = r;
+      readers[r] = new Thread(() -> {
+        try {
+          start.await();
+          int key = seed;
+          while (running.get()) {
+            key = (key * 31 + 7) & 0x1FFFF;
+            Integer value = map.get(key);
+            assertTrue(value == null || value == key);
+          }
+        } catch (Throwable e) {
+          error.set(e);
+        }
+      });
+    }
+    writer.start();
+    for (Thread reader : readers) {
+      reader.start();
+    }
+    start.countDown();
+    writer.join();
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    assertNull(error.get());
+    assertEquals(50000, map.size());
+  }
+}
@@ -0,0 +1,157 @@
+package com.antonr.datastructures.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antonr.datastructures.map.ReferenceHashMap.Strength;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+
+class ReferenceHashMapTest {
+
+  @Test
+  void putGetAndRemoveWithAllStrengths() {
+    for (Strength keyStrength : Strength.values()) {
+      for (Strength valueStrength : Strength.values()) {
+        Map<String, String> map = new ReferenceHashMap<>(keyStrength, valueStrength, 1);
+        String[] keys = new String[100];
+        String[] values = new String[100];
+        for (int i = 0; i < keys.length; i++) {
+          keys[i] = "K" + i;
+          values[i] = "V" + i;
+          assertNull(map.put(keys[i], values[i]));
+        }
+        assertEquals(100, map.size());
+        assertEquals("V5", map.put("K5", values[5] = "X"));
+        assertEquals("X", map.get("K5"));
+        assertTrue(map.containsKey("K99"));
+        assertEquals("V7", map.remove("K7"));
+        assertNull(map.remove("K7"));
+        assertFalse(map.containsKey("K7"));
+        assertEquals(99, map.size());
+      }
+    }
+  }
+
+  @Test
+  void nullKeysAndValuesAreNotAllowed() {
+    Map<String, String> map = new ReferenceHashMap<>();
+    assertThrows(NullPointerException.class, () -> map.put(null, "A"));
+    assertThrows(NullPointerException.class, () -> map.put("A", null));
+    assertNull(map.get(null));
+    assertNull(map.remove(null));
+    assertThrows(IllegalArgumentException.class,
+        () -> new ReferenceHashMap<String, String>(Strength.WEAK, Strength.SOFT, 0));
+  }
+
+  @Test
+  void entriesOfCollectedKeysArePurged() {
+    ReferenceHashMap<Object, String> map = new ReferenceHashMap<>(Strength.WEAK, Strength.STRONG);
+    Object liveKey = new Object();
+    map.put(liveKey, "live");
+    for (int i = 0; i < 1000; i++) {
+      map.put(new Object(), "garbage");
+    }
+    awaitGc(() -> {
+      map.purge();
+      return map.size() == 1;
+    });
+    assertEquals(1, map.size());
+    assertEquals("live", map.get(liveKey));
+  }
+
+  @Test
+  void writesPurgeInBatches() {
+    ReferenceHashMap<Object, String> map = new ReferenceHashMap<>(Strength.WEAK, Strength.STRONG);
+    Object[] keys = new Object[200];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = new Object();
+      map.put(keys[i], "live");
+    }
+    for (int i = 0; i < 1000; i++) {
+      map.put(new Object(), "garbage");
+    }
+    awaitGc(() -> {
+      // every put removes at most a batch of collected entries
+      for (Object key : keys) {
+        map.put(key, "live");
+      }
+      return map.size() == keys.length;
+    });
+    assertEquals(keys.length, map.size());
+  }
+
+  @Test
+  void collectedValueMakesEntryAbsent() {
+    ReferenceHashMap<String, Object> map = new ReferenceHashMap<>(Strength.STRONG, Strength.WEAK);
+    map.put("A", new Object());
+    awaitGc(() -> map.get("A") == null);
+    assertNull(map.get("A"));
+    assertFalse(map.containsKey("A"));
+    assertFalse(map.iterator().hasNext());
+    map.purge();
+    assertEquals(0, map.size());
+  }
+
+  @Test
+  void replacedValueDoesNotRemoveEntry() {
+    ReferenceHashMap<String, Object> map = new ReferenceHashMap<>(Strength.STRONG, Strength.WEAK);
+    Object value = new Object();
+    map.put("A", new Object());
+    map.put("A", value);
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      map.purge();
+    }
+    assertEquals(1, map.size());
+    assertEquals(value, map.get("A"));
+  }
+
+  @Test
+  void iteratorReturnsLiveEntriesAndRemoves() {
+    Map<Integer, String> map = new ReferenceHashMap<>(Strength.SOFT, Strength.SOFT, 4);
+    Integer[] keys = new Integer[10];
+    String[] values = new String[10];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = 1000 + i;
+      values[i] = "V" + i;
+      map.put(keys[i], values[i]);
+    }
+    Iterator<Map.Entry<Integer, String>> iterator = map.iterator();
+    int count = 0;
+    while (iterator.hasNext()) {
+      Map.Entry<Integer, String> entry = iterator.next();
+      assertEquals("V" + (entry.getKey() - 1000), entry.getValue());
+      if (entry.getKey() % 2 == 0) {
+        iterator.remove();
+      } else {
+        entry.setValue("X");
+      }
+      count++;
+    }
+    assertEquals(10, count);
+    assertEquals(5, map.size());
+    assertEquals("X", map.get(1001));
+    assertNull(map.get(1002));
+    assertThrows(NoSuchElementException.class, iterator::next);
+    assertEquals(5, map.entrySet().size());
+  }
+
+  // GC is only a request, so it is repeated until the condition is met
+  private static void awaitGc(BooleanSupplier condition) {
+    for (int i = 0; i < 50 && !condition.getAsBoolean(); i++) {
+      System.gc();
+      try {
+        Thread.sleep(20);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,252 @@
+package com.antonr.datastructures.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Test;
+
+class ShardedMapTest {
+
+  @Test
+  void putAndGet() {
+    Map<String, Integer> map = new ShardedMap<>(4);
+    assertNull(map.put("A", 1));
+    assertEquals(1, map.put("A", 2));
+    assertEquals(2, map.get("A"));
+    assertNull(map.get("B"));
+    assertTrue(map.containsKey("A"));
+    assertEquals(2, map.remove("A"));
+    assertEquals(0, map.size());
+  }
+
+  @Test
+  void nullKey() {
+    Map<String, Integer> map = new ShardedMap<>(4);
+    map.put(null, 1);
+    assertEquals(1, map.get(null));
+    assertEquals(1, map.remove(null));
+    assertFalse(map.containsKey(null));
+  }
+
+  @Test
+  void putAllInParallel() {
+    ShardedMap<Integer, Integer> map = new ShardedMap<>(8, 100000);
+    HashMap<Integer, Integer> source = new HashMap<>();
+    for (int i = 0; i < 100000; i++) {
+      source.put(i, i * 2);
+    }
+    map.put(0, -1);
+    map.putAll(source);
+    assertEquals(100000, map.size());
+    for (int i = 0; i < 100000; i++) {
+      assertEquals(i * 2, map.get(i));
+    }
+  }
+
+  @Test
+  void expectedSizeDoesNotResizeShards() {
+    assertShardsAreNotResized(16, 1000000);
+    assertShardsAreNotResized(64, 100000);
+    assertShardsAreNotResized(7, 1000);
+  }
+
+  @Test
+  void putAllFromSizedSource() {
+    ShardedMap<Integer, Integer> map = new ShardedMap<>(16);
+    java.util.List<Map.Entry<Integer, Integer>> source = new java.util.ArrayList<>();
+    for (int i = 0; i < 200000; i++) {
+      source.add(new Entry(i, i));
+    }
+    map.putAll(source);
+    assertEquals(200000, map.size());
+    for (int i = 0; i < 200000; i++) {
+      assertEquals(i, map.get(i));
+    }
+    for (int i = 0; i < 100; i++) {
+      source.set(i, new Entry(i, -i));
+    }
+    map.putAll(source);
+    assertEquals(200000, map.size());
+    assertEquals(-5, map.get(5));
+    assertEquals(500, map.get(500));
+  }
+
+  @Test
+  void putAllRethrowsExceptionOfSource() {
+    ShardedMap<Integer, Integer> map = new ShardedMap<>(4);
+    // source without size, its iterator fails in the middle
+    Iterable<Map.Entry<Integer, Integer>> source = () -> new FailingIterator(50000);
+    assertThrows(IllegalStateException.class, () -> map.putAll(source));
+  }
+
+  @Test
+  void forEachVisitsEveryEntry() {
+    ShardedMap<Integer, Integer> map = filledMap(10000);
+    LongAdder sum = new LongAdder();
+    LongAdder count = new LongAdder();
+    map.forEach((key, value) -> {
+      sum.add(value);
+      count.increment();
+    });
+    assertEquals(10000, count.sum());
+    assertEquals(9999L * 10000 / 2, sum.sum());
+  }
+
+  @Test
+  void reduce() {
+    ShardedMap<Integer, Integer> map = filledMap(10000);
+    assertEquals(9999L * 10000 / 2, map.reduce((key, value) -> (long) value, Long::sum));
+    // odd values are skipped
+    assertEquals(5000L, map.reduce((key, value) -> value % 2 == 0 ? 1L : null, Long::sum));
+    assertNull(new ShardedMap<Integer, Integer>(4).reduce((key, value) -> value, Integer::sum));
+  }
+
+  @Test
+  void replaceAll() {
+    ShardedMap<Integer, Integer> map = filledMap(10000);
+    map.replaceAll((key, value) -> key + value);
+    for (int i = 0; i < 10000; i++) {
+      assertEquals(i * 2, map.get(i));
+    }
+  }
+
+  @Test
+  void exceptionOfTaskIsRethrown() {
+    ShardedMap<Integer, Integer> map = filledMap(100);
+    assertThrows(IllegalStateException.class, () -> map.forEach((key, value) -> {
+      if (key == 50) {
+        throw new IllegalStateException();
+      }
+    }));
+  }
+
+  @Test
+  void failedBulkOperationWaitsForAllShards() throws InterruptedException {
+    ShardedMap<Integer, Integer> map = filledMap(1000);
+    AtomicInteger calls = new AtomicInteger();
+    AtomicBoolean failed = new AtomicBoolean();
+    // the first call fails at once, other shards are still busy then
+    assertThrows(IllegalStateException.class, () -> map.replaceAll((key, value) -> {
+      if (failed.compareAndSet(false, true)) {
+        throw new IllegalStateException();
+      }
+      calls.incrementAndGet();
+      try {
+        Thread.sleep(1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return value + 1;
+    }));
+    int callsAfterFailure = calls.get();
+    Thread.sleep(100);
+    assertEquals(callsAfterFailure, calls.get());
+  }
+
+  @Test
+  void removeThroughIterator() {
+    ShardedMap<Integer, Integer> map = filledMap(100);
+    Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator();
+    int iterated = 0;
+    while (iterator.hasNext()) {
+      iterated++;
+      if (iterator.next().getKey() % 2 == 0) {
+        iterator.remove();
+      }
+    }
+    assertEquals(100, iterated);
+    assertEquals(50, map.size());
+    assertEquals(50, map.entrySet().size());
+    assertFalse(map.containsKey(10));
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+
+  @Test
+  void throwIllegalArgumentExceptionIfInappropriateShardCount() {
+    assertThrows(IllegalArgumentException.class, () -> new ShardedMap<>(0));
+  }
+
+  private static void assertShardsAreNotResized(int shardCount, int expectedSize) {
+    ShardedMap<Long, Long> map = new ShardedMap<>(shardCount, expectedSize);
+    int[] capacities = new int[shardCount];
+    for (int i = 0; i < shardCount; i++) {
+      capacities[i] = map.shardCapacity(i);
+    }
+    Random random = new Random(42);
+    while (map.size() < expectedSize) {
+      long key = random.nextLong();
+      map.put(key, key);
+    }
+    for (int i = 0; i < shardCount; i++) {
+      assertEquals(capacities[i], map.shardCapacity(i), "Shard " + i + " was resized");
+    }
+  }
+
+  private static ShardedMap<Integer, Integer> filledMap(int size) {
+    ShardedMap<Integer, Integer> map = new ShardedMap<>(8, size);
+    for (int i = 0; i < size; i++) {
+      map.put(i, i);
+    }
+    return map;
+  }
+
+  private static class Entry implements Map.Entry<Integer, Integer> {
+
+    private final Integer key;
+    private Integer value;
+
+    Entry(Integer key, Integer value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public Integer getKey() {
+      return key;
+    }
+
+    @Override
+    public Integer getValue() {
+      return value;
+    }
+
+    @Override
+    public Integer setValue(Integer value) {
+      Integer oldValue = this.value;
+      this.value = value;
+      return oldValue;
+    }
+  }
+
+  private static class FailingIterator implements Iterator<Map.Entry<Integer, Integer>> {
+
+    private final int failAt;
+    private int next;
+
+    FailingIterator(int failAt) {
+      this.failAt = failAt;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return true;
+    }
+
+    @Override
+    public Map.Entry<Integer, Integer> next() {
+      if (next == failAt) {
+        throw new IllegalStateException();
+      }
+      return new Entry(next, next++);
+    }
+  }
+}
@@ -0,0 +1,223 @@
+package com.antonr.datastructures.map;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+// Throughput of ConcurrentSkipListMap against BPlusTreeMap behind a monitor and
+// java.util.concurrent.ConcurrentSkipListMap for different counts of threads. Writes are
+// puts and removes in equal parts, reads are gets and short range scans (ceilingKey and
+// a few higherKey, as walking the levels of an order book). It is not a test, surefire
+// doesn't run it:
+// mvn test-compile
+// java -cp target/classes:target/test-classes com.antonr.datastructures.map.SkipListThroughputBenchmark
+// Numbers are operations per microsecond of all threads together.
+public class SkipListThroughputBenchmark {
+
+  private static final int KEY_RANGE = 1 << 16;
+  private static final int SCAN_LENGTH = 8;
+  private static final int[] WRITE_PERCENTS = {0, 10, 50};
+  private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+  // compiles the code of all operations before the first row
+  private static final long JIT_WARMUP_MILLIS = 3000;
+  private static final long WARMUP_MILLIS = 300;
+  private static final long RUN_MILLIS = 1000;
+  // results of reads are summed here, so JIT can't drop them
+  private static volatile long sink;
+
+  public static void main(String[] args) throws InterruptedException {
+    run("skip list", SkipListThroughputBenchmark::skipList);
+    run("synchronized b+ tree", SkipListThroughputBenchmark::synchronizedTree);
+    run("java.util.concurrent skip list", SkipListThroughputBenchmark::javaSkipList);
+  }
+
+  private static void run(String name, Supplier<Target> targets) throws InterruptedException {
+    System.out.println(name);
+    measure(targets.get(), 2, 10, JIT_WARMUP_MILLIS);
+    StringBuilder header = new StringBuilder("  writes %");
+    for (int threads : THREAD_COUNTS) {
+      header.append(String.format("%12s", threads + " threads"));
+    }
+    System.out.println(header);
+    for (int writePercent : WRITE_PERCENTS) {
+      StringBuilder row = new StringBuilder(String.format("  %8d", writePercent));
+      for (int threads : THREAD_COUNTS) {
+        Target target = targets.get();
+        measure(target, threads, writePercent, WARMUP_MILLIS);
+        long operations = measure(target, threads, writePercent, RUN_MILLIS);
+        row.append(String.format("%12.2f", operations / (RUN_MILLIS * 1000.0)));
+      }
+      System.out.println(row);
+    }
+  }
+
+  // count of operations of all threads during the time
+  private static long measure(Target target, int threads, int writePercent, long millis)
+      throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    long[] operations = new long[threads];
+    AtomicBoolean stop = new AtomicBoolean();
+    Thread[] workers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      int worker = i;
+      workers[i] = new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long count = 0;
+        long sum = 0;
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        while (!stop.get()) {
+          // a batch between checks of the flag keeps its cost out of the result
+          for (int j = 0; j < 256; j++) {
+            int key = random.nextInt(KEY_RANGE);
+            int operation = random.nextInt(100);
+            if (operation < writePercent) {
+              if ((operation & 1) == 0) {
+                target.put(key);
+              } else {
+                target.remove(key);
+              }
+            } else if ((operation & 3) == 0) {
+              sum += target.scan(key);
+            } else {
+              sum += target.get(key);
+            }
+          }
+          count += 256;
+        }
+        operations[worker] = count;
+        sink += sum;
+      });
+      workers[i].start();
+    }
+    start.countDown();
+    Thread.sleep(millis);
+    stop.set(true);
+    long total = 0;
+    for (int i = 0; i < threads; i++) {
+      workers[i].join();
+      total += operations[i];
+    }
+    return total;
+  }
+
+  private static Target skipList() {
+    return new SortedMapTarget(new ConcurrentSkipListMap<>());
+  }
+
+  private static Target synchronizedTree() {
+    SortedMapTarget tree = new SortedMapTarget(new BPlusTreeMap<>());
+    return new Target() {
+      @Override
+      public synchronized int get(int key) {
+        return tree.get(key);
+      }
+
+      @Override
+      public synchronized int scan(int key) {
+        return tree.scan(key);
+      }
+
+      @Override
+      public synchronized void put(int key) {
+        tree.put(key);
+      }
+
+      @Override
+      public synchronized void remove(int key) {
+        tree.remove(key);
+      }
+    };
+  }
+
+  private static Target javaSkipList() {
+    java.util.concurrent.ConcurrentSkipListMap<Integer, Integer> map =
+        new java.util.concurrent.ConcurrentSkipListMap<>();
+    for (int i = 0; i < KEY_RANGE; i += 2) {
+      map.put(i, i);
+    }
+    return new Target() {
+      @Override
+      public int get(int key) {
+        Integer value = map.get(key);
+        return value == null ? 0 : value;
+      }
+
+      @Override
+      public int scan(int key) {
+        int sum = 0;
+        Integer next = map.ceilingKey(key);
+        for (int i = 0; i < SCAN_LENGTH && next != null; i++) {
+          sum += next;
+          next = map.higherKey(next);
+        }
+        return sum;
+      }
+
+      @Override
+      public void put(int key) {
+        map.put(key, key);
+      }
+
+      @Override
+      public void remove(int key) {
+        map.remove(key);
+      }
+    };
+  }
+
+  // the map is half full, so puts and removes keep its size
+  private static class SortedMapTarget implements Target {
+
+    private final SortedMap<Integer, Integer> map;
+
+    SortedMapTarget(SortedMap<Integer, Integer> map) {
+      this.map = map;
+      for (int i = 0; i < KEY_RANGE; i += 2) {
+        map.put(i, i);
+      }
+    }
+
+    @Override
+    public int get(int key) {
+      Integer value = map.get(key);
+      return value == null ? 0 : value;
+    }
+
+    @Override
+    public int scan(int key) {
+      int sum = 0;
+      Integer next = map.ceilingKey(key);
+      for (int i = 0; i < SCAN_LENGTH && next != null; i++) {
+        sum += next;
+        next = map.higherKey(next);
+      }
+      return sum;
+    }
+
+    @Override
+    public void put(int key) {
+      map.put(key, key);
+    }
+
+    @Override
+    public void remove(int key) {
+      map.remove(key);
+    }
+  }
+
+  private interface Target {
+
+    int get(int key);
+
+    int scan(int key);
+
+    void put(int key);
+
+    void remove(int key);
+  }
+}
@@ -0,0 +1,189 @@
+package com.antonr.datastructures.map;
+
+import java.util.Random;
+
+// get of SwissTableMap against the chained HashMap and a plain linear probing table
+// (open addressing without control bytes) at high load factors. The load is of the
+// open addressing tables, both have 2^20 slots, HashMap holds the same entries with
+// its own load factor 0.75. Keys count calls of equals, so the numbers show how many
+// unrelated keys every lookup touches. It is not a test, surefire doesn't run it:
+// mvn test-compile
+// java -cp target/classes:target/test-classes com.antonr.datastructures.map.SwissTableBenchmark
+// Numbers are nanoseconds per get and calls of equals per get.
+public class SwissTableBenchmark {
+
+  private static final int CAPACITY = 1 << 20;
+  private static final double[] LOAD_FACTORS = {0.5, 0.75, 0.8, 0.875};
+  private static final int LOOKUPS = 1 << 21;
+  private static final int ROUNDS = 5;
+  // results of gets are summed here, so JIT can't drop them
+  private static volatile long sink;
+  private static long equalsCalls;
+
+  public static void main(String[] args) {
+    System.out.println(String.format("%-16s%6s%8s%10s%10s", "map", "load", "lookup",
+        "ns/get", "equals"));
+    for (double loadFactor : LOAD_FACTORS) {
+      int size = (int) (CAPACITY * loadFactor);
+      Key[] keys = new Key[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = new Key("key" + i);
+      }
+      SwissTableMap<Key, Integer> swiss = new SwissTableMap<>(CAPACITY / 8 * 7);
+      HashMap<Key, Integer> chained = new HashMap<>();
+      LinearProbingMap<Key, Integer> linear = new LinearProbingMap<>(CAPACITY);
+      for (int i = 0; i < size; i++) {
+        swiss.put(keys[i], i);
+        chained.put(keys[i], i);
+        linear.put(keys[i], i);
+      }
+      if (swiss.capacity() != CAPACITY) {
+        throw new IllegalStateException("Swiss table was resized to " + swiss.capacity());
+      }
+      Key[] hits = lookups(keys, size, false);
+      Key[] misses = lookups(keys, size, true);
+      print("swiss table", loadFactor, "hit", measureSwiss(swiss, hits));
+      print("chained", loadFactor, "hit", measureChained(chained, hits));
+      print("linear probing", loadFactor, "hit", measureLinear(linear, hits));
+      print("swiss table", loadFactor, "miss", measureSwiss(swiss, misses));
+      print("chained", loadFactor, "miss", measureChained(chained, misses));
+      print("linear probing", loadFactor, "miss", measureLinear(linear, misses));
+    }
+  }
+
+  // keys in random order, new ones, so equals can't stop at the same reference
+  private static Key[] lookups(Key[] keys, int size, boolean missing) {
+    Random random = new Random(42);
+    Key[] lookups = new Key[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      int index = random.nextInt(size);
+      lookups[i] = new Key(missing ? "missing" + index : new String(keys[index].value));
+    }
+    return lookups;
+  }
+
+  // every map has its own loop, so each call site sees only one class of map,
+  // result is nanoseconds and calls of equals per get of the last round
+  private static double[] measureSwiss(SwissTableMap<Key, Integer> map, Key[] lookups) {
+    double[] result = new double[2];
+    for (int round = 0; round < ROUNDS; round++) {
+      equalsCalls = 0;
+      long sum = 0;
+      long start = System.nanoTime();
+      for (Key key : lookups) {
+        Integer value = map.get(key);
+        sum += value == null ? 0 : value;
+      }
+      result[0] = (double) (System.nanoTime() - start) / lookups.length;
+      result[1] = (double) equalsCalls / lookups.length;
+      sink += sum;
+    }
+    return result;
+  }
+
+  private static double[] measureChained(HashMap<Key, Integer> map, Key[] lookups) {
+    double[] result = new double[2];
+    for (int round = 0; round < ROUNDS; round++) {
+      equalsCalls = 0;
+      long sum = 0;
+      long start = System.nanoTime();
+      for (Key key : lookups) {
+        Integer value = map.get(key);
+        sum += value == null ? 0 : value;
+      }
+      result[0] = (double) (System.nanoTime() - start) / lookups.length;
+      result[1] = (double) equalsCalls / lookups.length;
+      sink += sum;
+    }
+    return result;
+  }
+
+  private static double[] measureLinear(LinearProbingMap<Key, Integer> map, Key[] lookups) {
+    double[] result = new double[2];
+    for (int round = 0; round < ROUNDS; round++) {
+      equalsCalls = 0;
+      long sum = 0;
+      long start = System.nanoTime();
+      for (Key key : lookups) {
+        Integer value = map.get(key);
+        sum += value == null ? 0 : value;
+      }
+      result[0] = (double) (System.nanoTime() - start) / lookups.length;
+      result[1] = (double) equalsCalls / lookups.length;
+      sink += sum;
+    }
+    return result;
+  }
+
+  private static void print(String name, double loadFactor, String lookup, double[] result) {
+    System.out.println(String.format("%-16s%6.3f%8s%10.1f%10.2f", name, loadFactor, lookup,
+        result[0], result[1]));
+  }
+
+  private static final class Key {
+
+    private final String value;
+    private final int hash;
+
+    Key(String value) {
+      this.value = value;
+      this.hash = value.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      equalsCalls++;
+      return o instanceof Key && value.equals(((Key) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  // the baseline: one probe sequence of slots, equals for every key on the way,
+  // fixed capacity and no removal, that's all the benchmark needs
+  private static final class LinearProbingMap<K, V> {
+
+    private final Object[] keys;
+    private final Object[] values;
+    private final int mask;
+
+    LinearProbingMap(int capacity) {
+      keys = new Object[capacity];
+      values = new Object[capacity];
+      mask = capacity - 1;
+    }
+
+    void put(K key, V value) {
+      int slot = slotOf(key);
+      keys[slot] = key;
+      values[slot] = value;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(K key) {
+      return (V) values[slotOf(key)];
+    }
+
+    // slot of the key or the empty slot where it should be
+    private int slotOf(K key) {
+      int slot = mix(key.hashCode()) & mask;
+      while (keys[slot] != null && !keys[slot].equals(key)) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    // finalizer of MurmurHash3
+    private static int mix(int hash) {
+      hash ^= hash >>> 16;
+      hash *= 0x85ebca6b;
+      hash ^= hash >>> 13;
+      hash *= 0xc2b2ae35;
+      hash ^= hash >>> 16;
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,166 @@
+package com.antonr.datastructures.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SwissTableMapTest {
+
+  @Test
+  void putAndGet() {
+    Map<String, Integer> map = new SwissTableMap<>();
+    assertNull(map.put("A", 1));
+    assertEquals(1, map.put("A", 2));
+    assertEquals(2, map.get("A"));
+    assertNull(map.get("B"));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  void putWithCollisions() {
+    // Elements with same hashcode() = 2019172
+    Map<String, Integer> map = new SwissTableMap<>();
+    map.put("AaAa", 1);
+    map.put("BBBB", 2);
+    map.put("AaBB", 3);
+    assertEquals(1, map.get("AaAa"));
+    assertEquals(2, map.get("BBBB"));
+    assertEquals(3, map.get("AaBB"));
+    assertEquals(2, map.remove("BBBB"));
+    assertFalse(map.containsKey("BBBB"));
+    assertEquals(1, map.get("AaAa"));
+    assertEquals(3, map.get("AaBB"));
+    assertEquals(2, map.size());
+  }
+
+  @Test
+  void nullKey() {
+    Map<String, Integer> map = new SwissTableMap<>();
+    map.put(null, 1);
+    assertTrue(map.containsKey(null));
+    assertEquals(1, map.get(null));
+    assertNull(map.iterator().next().getKey());
+    assertEquals(1, map.remove(null));
+    assertFalse(map.containsKey(null));
+  }
+
+  @Test
+  void fullGroupsAreProbed() {
+    // same hash code puts all keys into one probe sequence through several groups
+    Map<Key, Integer> map = new SwissTableMap<>(64);
+    for (int i = 0; i < 40; i++) {
+      map.put(new Key(i), i);
+    }
+    for (int i = 0; i < 40; i += 2) {
+      assertEquals(i, map.remove(new Key(i)));
+    }
+    for (int i = 0; i < 40; i++) {
+      assertEquals(i % 2 == 0 ? null : i, map.get(new Key(i)));
+    }
+    assertEquals(20, map.size());
+  }
+
+  @Test
+  void tombstonesDoNotGrowTable() {
+    SwissTableMap<Integer, Integer> map = new SwissTableMap<>(100);
+    int capacity = map.capacity();
+    for (int i = 0; i < 100000; i++) {
+      map.put(i, i);
+      if (i >= 50) {
+        assertEquals(i - 50, map.remove(i - 50));
+      }
+    }
+    assertEquals(capacity, map.capacity());
+    assertEquals(50, map.size());
+    assertEquals(99999, map.get(99999));
+  }
+
+  @Test
+  void expectedSizeFitsWithoutResize() {
+    SwissTableMap<Integer, Integer> map = new SwissTableMap<>(1000);
+    int capacity = map.capacity();
+    for (int i = 0; i < 1000; i++) {
+      map.put(i, i);
+    }
+    assertEquals(capacity, map.capacity());
+  }
+
+  @Test
+  void randomOperationsMatchHashMap() {
+    Random random = new Random(5);
+    Map<Integer, Integer> map = new SwissTableMap<>();
+    java.util.HashMap<Integer, Integer> expected = new java.util.HashMap<>();
+    for (int i = 0; i < 100000; i++) {
+      int key = random.nextInt(5000);
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        assertEquals(expected.put(key, i), map.put(key, i));
+      }
+    }
+    assertEquals(expected.size(), map.size());
+    int iterated = 0;
+    for (Map.Entry<Integer, Integer> entry : map) {
+      assertEquals(expected.get(entry.getKey()), entry.getValue());
+      iterated++;
+    }
+    assertEquals(expected.size(), iterated);
+  }
+
+  @Test
+  void removeThroughIterator() {
+    Map<Integer, Integer> map = new SwissTableMap<>();
+    for (int i = 0; i < 100; i++) {
+      map.put(i, i);
+    }
+    Iterator<Map.Entry<Integer, Integer>> iterator = map.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().getKey() % 2 == 0) {
+        iterator.remove();
+      }
+    }
+    assertEquals(50, map.size());
+    assertFalse(map.containsKey(10));
+    assertTrue(map.containsKey(11));
+    assertThrows(NoSuchElementException.class, iterator::next);
+  }
+
+  @Test
+  void setValueThroughEntry() {
+    Map<String, Integer> map = new SwissTableMap<>();
+    map.put("A", 1);
+    assertEquals(1, map.iterator().next().setValue(2));
+    assertEquals(2, map.get("A"));
+  }
+
+  @Test
+  void throwIllegalArgumentExceptionIfNegativeExpectedSize() {
+    assertThrows(IllegalArgumentException.class, () -> new SwissTableMap<>(-1));
+  }
+
+  private static class Key {
+
+    private final int id;
+
+    Key(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Key && ((Key) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+  }
+}
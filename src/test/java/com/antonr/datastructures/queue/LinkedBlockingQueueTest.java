@@ -0,0 +1,164 @@
+package com.antonr.datastructures.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antonr.datastructures.list.ArrayList;
+import com.antonr.datastructures.list.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class LinkedBlockingQueueTest {
+
+  private static final int PRODUCERS = 4;
+  private static final int CONSUMERS = 4;
+  private static final int VALUES_PER_PRODUCER = 50000;
+
+  @Test
+  void firstInFirstOut() {
+    Queue<Integer> queue = new LinkedBlockingQueue<>();
+    assertTrue(queue.offer(1));
+    assertTrue(queue.offer(2));
+    assertEquals(2, queue.size());
+    assertEquals(1, queue.peek());
+    assertEquals(1, queue.poll());
+    assertEquals(2, queue.poll());
+    assertNull(queue.poll());
+    assertNull(queue.peek());
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void offerFailsWhenFull() throws InterruptedException {
+    LinkedBlockingQueue<Integer> queue = new LinkedBlockingQueue<>(2);
+    assertTrue(queue.offer(1));
+    assertTrue(queue.offer(2));
+    assertFalse(queue.offer(3));
+    assertFalse(queue.offer(3, 10, TimeUnit.MILLISECONDS));
+    assertEquals(0, queue.remainingCapacity());
+    assertEquals(1, queue.poll());
+    assertTrue(queue.offer(3));
+    assertEquals(2, queue.poll());
+    assertEquals(3, queue.poll());
+    assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void putWaitsForSpace() throws InterruptedException {
+    LinkedBlockingQueue<Integer> queue = new LinkedBlockingQueue<>(1);
+    queue.put(1);
+    Thread producer = new Thread(() -> {
+      try {
+        queue.put(2);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    producer.start();
+    assertEquals(1, queue.take());
+    producer.join();
+    assertEquals(2, queue.take());
+  }
+
+  @Test
+  void drainToTakesAtMostMaxValues() {
+    LinkedBlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+    for (int i = 0; i < 10; i++) {
+      queue.offer(i);
+    }
+    List<Integer> batch = new ArrayList<>();
+    assertEquals(4, queue.drainTo(batch, 4));
+    assertEquals(4, batch.size());
+    assertEquals(0, batch.get(0));
+    assertEquals(3, batch.get(3));
+    assertEquals(6, queue.drainTo(batch, 100));
+    assertEquals(9, batch.get(9));
+    assertEquals(0, queue.drainTo(batch, 100));
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void reusedNodesKeepOrder() {
+    LinkedBlockingQueue<Integer> queue = new LinkedBlockingQueue<>();
+    for (int round = 0; round < 10; round++) {
+      for (int i = 0; i < 1000; i++) {
+        queue.offer(i);
+      }
+      for (int i = 0; i < 1000; i++) {
+        assertEquals(i, queue.poll());
+      }
+    }
+    assertNull(queue.poll());
+  }
+
+  @Test
+  void throwIllegalArgumentExceptionIfInappropriateCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new LinkedBlockingQueue<>(0));
+  }
+
+  @Test
+  void manyProducersAndBatchingConsumers() throws InterruptedException {
+    LinkedBlockingQueue<Integer> queue = new LinkedBlockingQueue<>(1000);
+    AtomicIntegerArray seen = new AtomicIntegerArray(PRODUCERS * VALUES_PER_PRODUCER);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    java.util.List<Thread> threads = new java.util.ArrayList<>();
+    for (int i = 0; i < PRODUCERS; i++) {
+      int producer = i;
+      threads.add(newThread(start, error, () -> {
+        for (int j = 0; j < VALUES_PER_PRODUCER; j++) {
+          queue.put(producer * VALUES_PER_PRODUCER + j);
+        }
+      }));
+    }
+    for (int i = 0; i < CONSUMERS; i++) {
+      threads.add(newThread(start, error, () -> {
+        int consumed = 0;
+        while (consumed < PRODUCERS * VALUES_PER_PRODUCER / CONSUMERS) {
+          List<Integer> batch = new ArrayList<>();
+          int limit = PRODUCERS * VALUES_PER_PRODUCER / CONSUMERS - consumed;
+          if (queue.drainTo(batch, Math.min(64, limit)) == 0) {
+            batch.add(queue.take());
+          }
+          for (int j = 0; j < batch.size(); j++) {
+            assertEquals(0, seen.getAndIncrement(batch.get(j)));
+          }
+          consumed += batch.size();
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertNull(error.get());
+    assertTrue(queue.isEmpty());
+    for (int i = 0; i < seen.length(); i++) {
+      assertEquals(1, seen.get(i));
+    }
+  }
+
+  private static Thread newThread(CountDownLatch start, AtomicReference<Throwable> error,
+      ThreadTask task) {
+    return new Thread(() -> {
+      try {
+        start.await();
+        task.run();
+      } catch (Throwable e) {
+        error.set(e);
+      }
+    });
+  }
+
+  private interface ThreadTask {
+
+    void run() throws Exception;
+  }
+}
@@ -0,0 +1,102 @@
+package com.antonr.datastructures.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class LockFreeQueueTest {
+
+  private static final int PRODUCERS = 4;
+  private static final int CONSUMERS = 4;
+  private static final int VALUES_PER_PRODUCER = 50000;
+
+  @Test
+  void firstInFirstOut() {
+    Queue<Integer> queue = new LockFreeQueue<>();
+    assertTrue(queue.isEmpty());
+    assertTrue(queue.offer(1));
+    assertTrue(queue.offer(2));
+    assertTrue(queue.offer(3));
+    assertEquals(3, queue.size());
+    assertEquals(1, queue.peek());
+    assertEquals(1, queue.poll());
+    assertEquals(2, queue.poll());
+    assertFalse(queue.isEmpty());
+    assertEquals(3, queue.poll());
+    assertNull(queue.poll());
+    assertNull(queue.peek());
+    assertEquals(0, queue.size());
+  }
+
+  @Test
+  void throwNullPointerExceptionIfNullValue() {
+    assertThrows(NullPointerException.class, () -> new LockFreeQueue<>().offer(null));
+  }
+
+  @Test
+  void manyProducersAndConsumers() throws InterruptedException {
+    Queue<Integer> queue = new LockFreeQueue<>();
+    AtomicIntegerArray seen = new AtomicIntegerArray(PRODUCERS * VALUES_PER_PRODUCER);
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < PRODUCERS; i++) {
+      int producer = i;
+      threads.add(newThread(start, error, () -> {
+        for (int j = 0; j < VALUES_PER_PRODUCER; j++) {
+          queue.offer(producer * VALUES_PER_PRODUCER + j);
+        }
+      }));
+    }
+    for (int i = 0; i < CONSUMERS; i++) {
+      threads.add(newThread(start, error, () -> {
+        // values of one producer come in the order they were offered
+        int[] lastValues = new int[PRODUCERS];
+        java.util.Arrays.fill(lastValues, -1);
+        int consumed = 0;
+        while (consumed < PRODUCERS * VALUES_PER_PRODUCER / CONSUMERS) {
+          Integer value = queue.poll();
+          if (value == null) {
+            continue;
+          }
+          int producer = value / VALUES_PER_PRODUCER;
+          assertTrue(value > lastValues[producer]);
+          lastValues[producer] = value;
+          assertEquals(0, seen.getAndIncrement(value));
+          consumed++;
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertNull(error.get());
+    assertTrue(queue.isEmpty());
+    for (int i = 0; i < seen.length(); i++) {
+      assertEquals(1, seen.get(i));
+    }
+  }
+
+  private static Thread newThread(CountDownLatch start, AtomicReference<Throwable> error,
+      Runnable task) {
+    return new Thread(() -> {
+      try {
+        start.await();
+        task.run();
+      } catch (Throwable e) {
+        error.set(e);
+      }
+    });
+  }
+}
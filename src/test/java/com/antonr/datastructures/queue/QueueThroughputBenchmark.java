@@ -0,0 +1,288 @@
+package com.antonr.datastructures.queue;
+
+import com.antonr.datastructures.list.ArrayList;
+import com.antonr.datastructures.list.List;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Multi-producer/multi-consumer throughput of LockFreeQueue and LinkedBlockingQueue
+// against their java.util.concurrent equivalents. LinkedBlockingQueue runs with
+// consumers taking values one by one and draining batches, with and without reuse
+// of nodes. It is not a test, surefire doesn't run it:
+// mvn test-compile
+// java -cp target/classes:target/test-classes com.antonr.datastructures.queue.QueueThroughputBenchmark
+// Numbers are values passed per microsecond and bytes allocated per value by all
+// threads together (nodes, batches and so on, values themselves are not allocated).
+public class QueueThroughputBenchmark {
+
+  private static final int VALUES_PER_RUN = 1 << 23;
+  private static final int[] THREAD_COUNTS = {1, 2, 4};
+  private static final int CAPACITY = 1024;
+  private static final int BATCH_SIZE = 64;
+  private static final int WARMUP_RUNS = 2;
+  // producers send these objects, so boxing doesn't allocate
+  private static final Integer[] VALUES = new Integer[1024];
+  // every consumer stops at its own poison value
+  private static final Integer POISON = new Integer(-1);
+  // results of consumers are summed here, so JIT can't drop them
+  private static volatile long sink;
+
+  static {
+    for (int i = 0; i < VALUES.length; i++) {
+      VALUES[i] = new Integer(i);
+    }
+  }
+
+  public static void main(String[] args) throws InterruptedException {
+    StringBuilder header = new StringBuilder(String.format("%-38s", "producers x consumers"));
+    for (int threads : THREAD_COUNTS) {
+      header.append(String.format("%16s", threads + " x " + threads));
+    }
+    System.out.println(header);
+    run("lock-free queue", () -> lockFree(new LockFreeQueue<>()));
+    run("j.u.c ConcurrentLinkedQueue", QueueThroughputBenchmark::concurrentLinkedQueue);
+    run("blocking queue, take", () -> take(new LinkedBlockingQueue<>(CAPACITY)));
+    run("blocking queue, take, no reuse", () -> take(new LinkedBlockingQueue<>(CAPACITY, 0)));
+    run("blocking queue, drainTo", () -> drainTo(new LinkedBlockingQueue<>(CAPACITY)));
+    run("blocking queue, drainTo, no reuse",
+        () -> drainTo(new LinkedBlockingQueue<>(CAPACITY, 0)));
+    run("j.u.c LinkedBlockingQueue, take", QueueThroughputBenchmark::javaTake);
+    run("j.u.c LinkedBlockingQueue, drainTo", QueueThroughputBenchmark::javaDrainTo);
+  }
+
+  private static void run(String name, Supplier<Channel> channels) throws InterruptedException {
+    StringBuilder row = new StringBuilder(String.format("%-38s", name));
+    for (int threads : THREAD_COUNTS) {
+      for (int i = 0; i < WARMUP_RUNS; i++) {
+        measure(channels.get(), threads);
+      }
+      row.append(measure(channels.get(), threads));
+    }
+    System.out.println(row);
+  }
+
+  private static String measure(Channel channel, int threads) throws InterruptedException {
+    LongAdder allocated = new LongAdder();
+    Thread[] producers = new Thread[threads];
+    Thread[] consumers = new Thread[threads];
+    for (int i = 0; i < threads; i++) {
+      producers[i] = new Thread(() -> {
+        long allocatedBefore = allocatedBytes();
+        try {
+          for (int j = 0; j < VALUES_PER_RUN / threads; j++) {
+            channel.send(VALUES[j & (VALUES.length - 1)]);
+          }
+        } catch (InterruptedException e) {
+          return;
+        }
+        allocated.add(allocatedBytes() - allocatedBefore);
+      });
+      consumers[i] = new Thread(() -> {
+        long allocatedBefore = allocatedBytes();
+        try {
+          sink += channel.receiveAll();
+        } catch (InterruptedException e) {
+          return;
+        }
+        allocated.add(allocatedBytes() - allocatedBefore);
+      });
+    }
+    long start = System.nanoTime();
+    for (int i = 0; i < threads; i++) {
+      consumers[i].start();
+      producers[i].start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    for (int i = 0; i < threads; i++) {
+      channel.send(POISON);
+    }
+    for (Thread consumer : consumers) {
+      consumer.join();
+    }
+    long nanos = System.nanoTime() - start;
+    int values = VALUES_PER_RUN / threads * threads;
+    return String.format("%8.2f /%4.1fB", values * 1000.0 / nanos,
+        (double) allocated.sum() / values);
+  }
+
+  private static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static Channel lockFree(LockFreeQueue<Integer> queue) {
+    return new Channel() {
+      @Override
+      public void send(Integer value) {
+        queue.offer(value);
+      }
+
+      @Override
+      public long receiveAll() {
+        long sum = 0;
+        while (true) {
+          Integer value = queue.poll();
+          if (value == null) {
+            Thread.yield();
+          } else if (value == POISON) {
+            return sum;
+          } else {
+            sum += value;
+          }
+        }
+      }
+    };
+  }
+
+  private static Channel concurrentLinkedQueue() {
+    ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<>();
+    return new Channel() {
+      @Override
+      public void send(Integer value) {
+        queue.offer(value);
+      }
+
+      @Override
+      public long receiveAll() {
+        long sum = 0;
+        while (true) {
+          Integer value = queue.poll();
+          if (value == null) {
+            Thread.yield();
+          } else if (value == POISON) {
+            return sum;
+          } else {
+            sum += value;
+          }
+        }
+      }
+    };
+  }
+
+  private static Channel take(LinkedBlockingQueue<Integer> queue) {
+    return new Channel() {
+      @Override
+      public void send(Integer value) throws InterruptedException {
+        queue.put(value);
+      }
+
+      @Override
+      public long receiveAll() throws InterruptedException {
+        long sum = 0;
+        while (true) {
+          Integer value = queue.take();
+          if (value == POISON) {
+            return sum;
+          }
+          sum += value;
+        }
+      }
+    };
+  }
+
+  // waits only when the queue is empty, a batch may take poison values of other
+  // consumers, they are sent back
+  private static Channel drainTo(LinkedBlockingQueue<Integer> queue) {
+    return new Channel() {
+      @Override
+      public void send(Integer value) throws InterruptedException {
+        queue.put(value);
+      }
+
+      @Override
+      public long receiveAll() throws InterruptedException {
+        List<Integer> batch = new ArrayList<>(BATCH_SIZE);
+        long sum = 0;
+        int poisons = 0;
+        while (poisons == 0) {
+          if (queue.drainTo(batch, BATCH_SIZE) == 0) {
+            batch.add(queue.take());
+          }
+          for (int i = 0; i < batch.size(); i++) {
+            Integer value = batch.get(i);
+            if (value == POISON) {
+              poisons++;
+            } else {
+              sum += value;
+            }
+          }
+          batch.clear();
+        }
+        for (int i = 1; i < poisons; i++) {
+          queue.put(POISON);
+        }
+        return sum;
+      }
+    };
+  }
+
+  private static Channel javaTake() {
+    java.util.concurrent.LinkedBlockingQueue<Integer> queue =
+        new java.util.concurrent.LinkedBlockingQueue<>(CAPACITY);
+    return new Channel() {
+      @Override
+      public void send(Integer value) throws InterruptedException {
+        queue.put(value);
+      }
+
+      @Override
+      public long receiveAll() throws InterruptedException {
+        long sum = 0;
+        while (true) {
+          Integer value = queue.take();
+          if (value == POISON) {
+            return sum;
+          }
+          sum += value;
+        }
+      }
+    };
+  }
+
+  private static Channel javaDrainTo() {
+    java.util.concurrent.LinkedBlockingQueue<Integer> queue =
+        new java.util.concurrent.LinkedBlockingQueue<>(CAPACITY);
+    return new Channel() {
+      @Override
+      public void send(Integer value) throws InterruptedException {
+        queue.put(value);
+      }
+
+      @Override
+      public long receiveAll() throws InterruptedException {
+        java.util.List<Integer> batch = new java.util.ArrayList<>(BATCH_SIZE);
+        long sum = 0;
+        int poisons = 0;
+        while (poisons == 0) {
+          if (queue.drainTo(batch, BATCH_SIZE) == 0) {
+            batch.add(queue.take());
+          }
+          for (Integer value : batch) {
+            if (value == POISON) {
+              poisons++;
+            } else {
+              sum += value;
+            }
+          }
+          batch.clear();
+        }
+        for (int i = 1; i < poisons; i++) {
+          queue.put(POISON);
+        }
+        return sum;
+      }
+    };
+  }
+
+  private interface Channel {
+
+    void send(Integer value) throws InterruptedException;
+
+    // takes values until the poison one, returns their sum
+    long receiveAll() throws InterruptedException;
+  }
+}
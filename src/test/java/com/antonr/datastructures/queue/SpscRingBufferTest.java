@@ -0,0 +1,143 @@
+package com.antonr.datastructures.queue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.antonr.datastructures.list.ArrayList;
+import com.antonr.datastructures.list.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class SpscRingBufferTest {
+
+  @Test
+  void firstInFirstOut() {
+    Queue<Integer> queue = new SpscRingBuffer<>(4);
+    assertTrue(queue.isEmpty());
+    assertTrue(queue.offer(1));
+    assertTrue(queue.offer(2));
+    assertEquals(2, queue.size());
+    assertEquals(1, queue.peek());
+    assertEquals(1, queue.poll());
+    assertEquals(2, queue.poll());
+    assertNull(queue.poll());
+    assertNull(queue.peek());
+  }
+
+  @Test
+  void capacityIsRoundedToPowerOfTwo() {
+    SpscRingBuffer<Integer> queue = new SpscRingBuffer<>(5);
+    assertEquals(8, queue.capacity());
+    for (int i = 0; i < 8; i++) {
+      assertTrue(queue.offer(i));
+    }
+    assertFalse(queue.offer(8));
+    assertEquals(8, queue.size());
+  }
+
+  @Test
+  void positionsWrapAround() {
+    Queue<Integer> queue = new SpscRingBuffer<>(4);
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(queue.offer(i));
+      assertTrue(queue.offer(-i));
+      assertEquals(i, queue.poll());
+      assertEquals(-i, queue.poll());
+    }
+    assertTrue(queue.isEmpty());
+  }
+
+  @Test
+  void batchOfferPublishesOnlyFreeSpace() {
+    SpscRingBuffer<Integer> queue = new SpscRingBuffer<>(4);
+    queue.offer(0);
+    assertEquals(3, queue.offer(new Integer[]{1, 2, 3, 4, 5}, 0, 5));
+    assertEquals(0, queue.offer(new Integer[]{6}, 0, 1));
+    assertEquals(0, queue.poll());
+    assertEquals(1, queue.offer(new Integer[]{4, 5}, 0, 2));
+    for (int i = 1; i <= 4; i++) {
+      assertEquals(i, queue.poll());
+    }
+  }
+
+  @Test
+  void drainToTakesAtMostMaxValues() {
+    SpscRingBuffer<Integer> queue = new SpscRingBuffer<>(16);
+    for (int i = 0; i < 10; i++) {
+      queue.offer(i);
+    }
+    List<Integer> batch = new ArrayList<>();
+    assertEquals(4, queue.drainTo(batch, 4));
+    assertEquals(3, batch.get(3));
+    assertEquals(6, queue.drainTo(batch, 100));
+    assertEquals(9, batch.get(9));
+    assertEquals(0, queue.drainTo(batch, 100));
+    assertEquals(0, queue.drainTo(batch, 0));
+  }
+
+  @Test
+  void throwNullPointerExceptionIfNullValue() {
+    assertThrows(NullPointerException.class, () -> new SpscRingBuffer<>(4).offer(null));
+  }
+
+  @Test
+  void throwIllegalArgumentExceptionIfInappropriateCapacity() {
+    assertThrows(IllegalArgumentException.class, () -> new SpscRingBuffer<>(0));
+  }
+
+  @Test
+  void producerAndConsumerThreads() throws InterruptedException {
+    int count = 200000;
+    SpscRingBuffer<Integer> queue = new SpscRingBuffer<>(1024);
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    Thread producer = new Thread(() -> {
+      Integer[] values = new Integer[32];
+      int next = 0;
+      while (next < count) {
+        // single values and batches are mixed
+        if (next % 3 == 0) {
+          if (queue.offer(next)) {
+            next++;
+          }
+        } else {
+          int length = Math.min(values.length, count - next);
+          for (int i = 0; i < length; i++) {
+            values[i] = next + i;
+          }
+          next += queue.offer(values, 0, length);
+        }
+      }
+    });
+    Thread consumer = new Thread(() -> {
+      try {
+        int expected = 0;
+        List<Integer> batch = new ArrayList<>(64);
+        while (expected < count) {
+          if (expected % 2 == 0) {
+            Integer value = queue.poll();
+            if (value != null) {
+              assertEquals(expected++, value);
+            }
+          } else {
+            batch.clear();
+            queue.drainTo(batch, 64);
+            for (int i = 0; i < batch.size(); i++) {
+              assertEquals(expected++, batch.get(i));
+            }
+          }
+        }
+      } catch (Throwable e) {
+        error.set(e);
+      }
+    });
+    producer.start();
+    consumer.start();
+    producer.join();
+    consumer.join();
+    assertNull(error.get());
+    assertTrue(queue.isEmpty());
+  }
+}